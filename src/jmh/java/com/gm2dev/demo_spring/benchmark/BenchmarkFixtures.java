@@ -0,0 +1,79 @@
+package com.gm2dev.demo_spring.benchmark;
+
+import com.gm2dev.demo_spring.entity.order.Order;
+import com.gm2dev.demo_spring.entity.order.OrderItem;
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.entity.user.Role;
+import com.gm2dev.demo_spring.entity.user.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Entity graphs shaped like what the API serves: seeded so every run measures the same data
+final class BenchmarkFixtures {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Clothing", "Home", "Sports"};
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Product> products(int count, long seed) {
+        Random random = new Random(seed);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .id((long) i + 1)
+                    .name("Product " + i)
+                    .description("A reasonably descriptive text for product " + i + ", as shown on the catalog page")
+                    .price(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                    .stockQuantity(random.nextInt(500))
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .imageUrl("https://cdn.example.com/products/" + i + ".jpg")
+                    .version(0L)
+                    .createdAt(CREATED_AT)
+                    .updatedAt(CREATED_AT)
+                    .build());
+        }
+        return products;
+    }
+
+    static User user() {
+        return User.builder()
+                .id(1L)
+                .username("user")
+                .email("user@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4G1ZQp1kVjvYvY3W1Q8xX7e")
+                .firstName("Regular")
+                .lastName("User")
+                .roles(Set.of(new Role(Role.RoleName.USER), new Role(Role.RoleName.MODERATOR)))
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+    }
+
+    static Order order(int lines, long seed) {
+        Order order = Order.builder()
+                .id(1L)
+                .user(user())
+                .status(OrderStatus.PENDING)
+                .shippingAddress("123 Benchmark Street, Test City, 12345")
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+        Random random = new Random(seed);
+        List<Product> products = products(lines, seed);
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = OrderItem.of(products.get(i), 1 + random.nextInt(5));
+            item.setId((long) i + 1);
+            order.addOrderItem(item);
+        }
+        order.updateTotalAmount();
+        return order;
+    }
+}
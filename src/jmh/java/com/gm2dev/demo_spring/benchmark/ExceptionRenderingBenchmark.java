@@ -0,0 +1,86 @@
+package com.gm2dev.demo_spring.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gm2dev.demo_spring.dto.product.CreateProductRequest;
+import com.gm2dev.demo_spring.exception.GlobalExceptionHandler;
+import com.gm2dev.demo_spring.exception.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// Error responses as clients see them: the handler builds the body and Jackson writes it.
+// The exceptions are created once, so this is rendering cost, not stack trace capture.
+// Handler logging is switched off in src/jmh/resources/logback.xml to keep appender I/O out of the numbers.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionRenderingBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private WebRequest request;
+    private ResourceNotFoundException notFound;
+    private MethodArgumentNotValidException invalid;
+    private RuntimeException unexpected;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/v1/products"));
+
+        notFound = new ResourceNotFoundException("Product", "id", 42L);
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new CreateProductRequest(), "createProductRequest");
+        bindingResult.rejectValue("name", "NotBlank", "Product name is required");
+        bindingResult.rejectValue("price", "DecimalMin", "Price must be greater than 0");
+        bindingResult.rejectValue("stockQuantity", "NotNull", "Stock quantity is required");
+        MethodParameter parameter = new MethodParameter(
+                ExceptionRenderingBenchmark.class.getDeclaredMethod("target", CreateProductRequest.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, bindingResult);
+
+        unexpected = new IllegalMonitorStateException("boom");
+    }
+
+    @Benchmark
+    public byte[] notFound() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleResourceNotFoundException(notFound, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] validationFailed() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleValidationExceptions(invalid, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] unexpectedError() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleGlobalException(unexpected, request).getBody());
+    }
+
+    @SuppressWarnings("unused")
+    private void target(CreateProductRequest createProductRequest) {
+    }
+}
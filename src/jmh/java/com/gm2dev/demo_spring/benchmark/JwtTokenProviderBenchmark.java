@@ -0,0 +1,59 @@
+package com.gm2dev.demo_spring.benchmark;
+
+import com.gm2dev.demo_spring.config.JwtProperties;
+import com.gm2dev.demo_spring.security.JwtTokenProvider;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+// Signing on /auth/signin, and the validate-then-read pair JwtAuthenticationFilter runs on every
+// authenticated request (two full HMAC verifications of the same token)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("benchmarkSecretKeyWithAtLeast32Characters");
+        properties.setExpiration(86_400_000L);
+        tokenProvider = new JwtTokenProvider(properties);
+
+        UserPrincipal principal = UserPrincipal.create(BenchmarkFixtures.user());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String issue() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String verify() {
+        if (!tokenProvider.validateToken(token)) {
+            throw new IllegalStateException("Benchmark token did not validate");
+        }
+        return tokenProvider.getUsernameFromToken(token);
+    }
+}
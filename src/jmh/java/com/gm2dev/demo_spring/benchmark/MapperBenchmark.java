@@ -0,0 +1,74 @@
+package com.gm2dev.demo_spring.benchmark;
+
+import com.gm2dev.demo_spring.dto.order.OrderResponse;
+import com.gm2dev.demo_spring.dto.product.ProductResponse;
+import com.gm2dev.demo_spring.entity.order.Order;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.mapper.order.OrderMapper;
+import com.gm2dev.demo_spring.mapper.order.OrderMapperImpl;
+import com.gm2dev.demo_spring.mapper.product.ProductMapper;
+import com.gm2dev.demo_spring.mapper.product.ProductMapperImpl;
+import com.gm2dev.demo_spring.mapper.user.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// The generated MapStruct mappers on a catalog page and on an order with its lines and user.
+// A bare context wires the generated impls the same way the application does (field injection).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+    private ProductMapper productMapper;
+    private OrderMapper orderMapper;
+    private Page<Product> productPage;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(UserMapperImpl.class, ProductMapperImpl.class, OrderMapperImpl.class);
+        productMapper = context.getBean(ProductMapper.class);
+        orderMapper = context.getBean(OrderMapper.class);
+
+        productPage = new PageImpl<>(BenchmarkFixtures.products(size, 42), PageRequest.of(0, size), 10_000);
+        order = BenchmarkFixtures.order(size, 42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ProductResponse> productPage() {
+        return productPage.map(productMapper::toProductResponse);
+    }
+
+    @Benchmark
+    public OrderResponse orderWithLines() {
+        return orderMapper.toOrderResponse(order);
+    }
+}
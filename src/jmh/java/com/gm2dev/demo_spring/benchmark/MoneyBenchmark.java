@@ -0,0 +1,73 @@
+package com.gm2dev.demo_spring.benchmark;
+
+import com.gm2dev.demo_spring.entity.common.Money;
+import com.gm2dev.demo_spring.entity.order.Order;
+import com.gm2dev.demo_spring.entity.order.OrderItem;
+import com.gm2dev.demo_spring.entity.product.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Order total over N lines: the previous BigDecimal stream/reduce (one multiply per line, every call)
+// against the stored Money subtotals summed as longs. Run with the gc profiler to compare allocation.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"3", "30"})
+    private int lines;
+
+    private BigDecimal[] unitPrices;
+    private int[] quantities;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        unitPrices = new BigDecimal[lines];
+        quantities = new int[lines];
+        order = new Order();
+        for (int i = 0; i < lines; i++) {
+            unitPrices[i] = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            quantities[i] = 1 + random.nextInt(5);
+            Product product = Product.builder().id((long) i).price(unitPrices[i]).build();
+            order.addOrderItem(OrderItem.of(product, quantities[i]));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(unitPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyTotal() {
+        return order.calculateTotal();
+    }
+
+    // What a response pays when it renders the total: one BigDecimal at the API edge
+    @Benchmark
+    public BigDecimal moneyTotalAsBigDecimal() {
+        return order.calculateTotal().toBigDecimal();
+    }
+}
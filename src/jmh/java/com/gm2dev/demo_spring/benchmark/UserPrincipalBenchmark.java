@@ -0,0 +1,38 @@
+package com.gm2dev.demo_spring.benchmark;
+
+import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Built for every authenticated request once the user (and its cached roles) is loaded
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPrincipalBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user();
+    }
+
+    @Benchmark
+    public UserPrincipal create() {
+        return UserPrincipal.create(user);
+    }
+}
@@ -0,0 +1,53 @@
+package com.gm2dev.demo_spring.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency (microseconds, 3 significant digits) and outcomes of one Postman request across all sessions
+public class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final Histogram histogram = new Histogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.min(MAX_TRACKABLE_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public void recordDropped() {
+        dropped.increment();
+        errors.increment();
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // Folds everything recorded so far into the report histogram; call once recording has stopped
+    public Histogram histogram() {
+        histogram.add(recorder.getIntervalHistogram());
+        return histogram;
+    }
+}
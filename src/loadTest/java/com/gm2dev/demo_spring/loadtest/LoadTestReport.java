@@ -0,0 +1,106 @@
+package com.gm2dev.demo_spring.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Per-endpoint percentiles checked against the configured SLOs. Writes summary.txt, summary.json and one
+// HdrHistogram percentile distribution (.hgrm, plottable with HistogramLogAnalyzer) per endpoint.
+public class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final List<EndpointResult> results;
+
+    private LoadTestReport(List<EndpointResult> results) {
+        this.results = results;
+    }
+
+    public static LoadTestReport of(Map<String, EndpointStats> stats, LoadTestSettings settings) {
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        List<EndpointResult> results = new ArrayList<>();
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram histogram = endpoint.histogram();
+            // Dropped arrivals never produced a latency sample but still count as failed requests
+            long requests = histogram.getTotalCount() + endpoint.dropped();
+            double errorRate = requests == 0 ? 0 : (double) endpoint.errors() / requests;
+            LoadTestSettings.Slo slo = settings.sloFor(endpoint.endpoint());
+
+            List<String> violations = new ArrayList<>();
+            if (requests == 0) {
+                violations.add("no requests completed");
+            }
+            check(violations, "p50", histogram.getValueAtPercentile(50), slo.getP50());
+            check(violations, "p99", histogram.getValueAtPercentile(99), slo.getP99());
+            if (errorRate > slo.getMaxErrorRate()) {
+                violations.add(String.format("error rate %.2f%% > %.2f%%", errorRate * 100, slo.getMaxErrorRate() * 100));
+            }
+
+            results.add(new EndpointResult(endpoint.endpoint(), requests, endpoint.errors(), errorRate,
+                    requests / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    violations.isEmpty(), violations, histogram));
+        }
+        return new LoadTestReport(results);
+    }
+
+    public boolean passed() {
+        return results.stream().allMatch(EndpointResult::passed);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-34s %9s %8s %8s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "SLO");
+        for (EndpointResult result : results) {
+            out.printf("%-34s %9d %7.2f%% %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    result.endpoint(), result.requests(), result.errorRate() * 100, result.throughput(),
+                    result.p50(), result.p90(), result.p99(), result.p999(), result.max(),
+                    result.passed() ? "PASS" : "FAIL " + String.join("; ", result.violations()));
+        }
+        out.println(passed() ? "All SLOs met" : "SLO violations found");
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")))) {
+            print(summary);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("summary.json").toFile(), results);
+        for (EndpointResult result : results) {
+            try (PrintStream distribution = new PrintStream(Files.newOutputStream(directory.resolve(result.endpoint() + ".hgrm")))) {
+                result.histogram().outputPercentileDistribution(distribution, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static void check(List<String> violations, String percentile, long valueMicros, Duration target) {
+        if (target != null && valueMicros > target.toNanos() / 1000) {
+            violations.add(String.format("%s %.1f ms > %d ms", percentile, millis(valueMicros), target.toMillis()));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    public record EndpointResult(String endpoint, long requests, long errors, double errorRate, double throughput,
+                                 double p50, double p90, double p99, double p999, double max,
+                                 boolean passed, List<String> violations,
+                                 @JsonIgnore Histogram histogram) {
+    }
+}
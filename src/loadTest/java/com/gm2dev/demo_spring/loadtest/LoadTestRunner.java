@@ -0,0 +1,55 @@
+package com.gm2dev.demo_spring.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.DemoSpringApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+// Boots the application in-process on H2 ("dev" for the schema and seed users, "loadtest" for quiet logs
+// and the load settings), seeds data over HTTP, drives the configured scenarios and exits non-zero when
+// an SLO is missed. Everything runs locally: no external services or network access are needed.
+@Slf4j
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoSpringApplication.class)
+                .profiles("dev", "loadtest")
+                .run(args);
+
+        boolean passed;
+        try {
+            Environment environment = context.getEnvironment();
+            LoadTestSettings settings = Binder.get(environment)
+                    .bind("loadtest", LoadTestSettings.class)
+                    .orElseGet(LoadTestSettings::new);
+            String baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port")
+                    + environment.getProperty("server.servlet.context-path", "");
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            PostmanCollection collection = PostmanCollection.load(Path.of(settings.getCollection()), objectMapper);
+            SeedData seedData = new SeedData(baseUrl, objectMapper);
+            seedData.seed(settings);
+
+            log.info("Running {} for {} after {} warmup against {}", settings.getScenarios().keySet(),
+                    settings.getDuration(), settings.getWarmup(), baseUrl);
+            Map<String, EndpointStats> stats = new OpenLoadGenerator(settings, collection, seedData, objectMapper).run();
+
+            LoadTestReport report = LoadTestReport.of(stats, settings);
+            report.print(System.out);
+            report.write(Path.of(settings.getReportDir()));
+            passed = report.passed();
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.gm2dev.demo_spring.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bound from "loadtest.*" (application-loadtest.properties, overridable with --loadtest.x=y arguments)
+@Data
+public class LoadTestSettings {
+
+    private String collection = "postman/Demo Spring E-commerce API.postman_collection.json";
+    private String reportDir = "build/reports/loadtest";
+
+    private Duration warmup = Duration.ofSeconds(15);
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    // Arrivals beyond this many open sessions are dropped and reported as errors, never queued
+    private int maxInFlight = 2000;
+    private Arrivals arrivals = Arrivals.POISSON;
+    private long seed = 42;
+
+    private int seedProducts = 500;
+    private int seedUsers = 50;
+
+    private Map<String, Scenario> scenarios = new LinkedHashMap<>();
+
+    private Slo defaultSlo = new Slo();
+    // Keyed by the Postman request name in kebab case, e.g. "get-product-by-id"
+    private Map<String, Slo> slos = new LinkedHashMap<>();
+
+    public enum Arrivals {
+        POISSON,
+        CONSTANT
+    }
+
+    @Data
+    public static class Scenario {
+        // Sessions started per second, independent of how fast earlier sessions finish
+        private double rate;
+        // Postman request names run in order within one session
+        private List<String> steps = new ArrayList<>();
+    }
+
+    @Data
+    public static class Slo {
+        private Duration p50;
+        private Duration p99 = Duration.ofMillis(500);
+        private double maxErrorRate = 0.01;
+    }
+
+    public Slo sloFor(String endpoint) {
+        return slos.getOrDefault(endpoint, defaultSlo);
+    }
+}
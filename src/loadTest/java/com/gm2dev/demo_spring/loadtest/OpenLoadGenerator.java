@@ -0,0 +1,146 @@
+package com.gm2dev.demo_spring.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.loadtest.PostmanCollection.PostmanRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Open workload model: sessions arrive on a schedule fixed in advance (Poisson or constant rate), whatever
+// the response times. The first request of a session is timed from its intended arrival, so a stalled
+// server or generator shows up as latency instead of silently lowering the offered load.
+@Slf4j
+public class OpenLoadGenerator {
+
+    private final LoadTestSettings settings;
+    private final PostmanCollection collection;
+    private final SeedData seedData;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    public OpenLoadGenerator(LoadTestSettings settings, PostmanCollection collection, SeedData seedData,
+                             ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.collection = collection;
+        this.seedData = seedData;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getRequestTimeout())
+                .build();
+
+        // Fail on a misspelt step before any load is generated
+        settings.getScenarios().values().forEach(scenario -> scenario.getSteps().forEach(step ->
+                stats.computeIfAbsent(collection.request(step).endpoint(), EndpointStats::new)));
+    }
+
+    public Map<String, EndpointStats> run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+
+        List<Thread> schedulers = settings.getScenarios().entrySet().stream()
+                .filter(scenario -> scenario.getValue().getRate() > 0)
+                .map(scenario -> Thread.ofPlatform()
+                        .name("arrivals-" + scenario.getKey())
+                        .start(() -> schedule(scenario.getKey(), scenario.getValue(), start, measureFrom, end)))
+                .toList();
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+
+        // Sessions that arrived in the window still count; give the slowest one time to finish
+        sessions.shutdown();
+        long maxSteps = settings.getScenarios().values().stream().mapToLong(scenario -> scenario.getSteps().size()).max().orElse(1);
+        if (!sessions.awaitTermination(settings.getRequestTimeout().toMillis() * (maxSteps + 1), TimeUnit.MILLISECONDS)) {
+            log.warn("{} sessions still open after the drain timeout", inFlight.get());
+            sessions.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void schedule(String name, LoadTestSettings.Scenario scenario, long start, long measureFrom, long end) {
+        Random random = new Random(settings.getSeed() ^ name.hashCode());
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / scenario.getRate();
+        List<PostmanRequest> steps = scenario.getSteps().stream().map(collection::request).toList();
+
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = next - System.nanoTime();
+            }
+
+            long intendedStart = next;
+            boolean measured = intendedStart >= measureFrom;
+            if (inFlight.incrementAndGet() > settings.getMaxInFlight()) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    stats.get(steps.get(0).endpoint()).recordDropped();
+                }
+            } else {
+                long sessionSeed = random.nextLong();
+                sessions.execute(() -> {
+                    try {
+                        runSession(steps, intendedStart, measured, new Random(sessionSeed));
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+
+            next += settings.getArrivals() == LoadTestSettings.Arrivals.POISSON
+                    ? (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos)
+                    : (long) meanIntervalNanos;
+        }
+    }
+
+    private void runSession(List<PostmanRequest> steps, long intendedStart, boolean measured, Random random) {
+        Map<String, String> variables = new HashMap<>(collection.variables());
+        seedData.bind(variables, random);
+
+        for (int i = 0; i < steps.size(); i++) {
+            PostmanRequest step = steps.get(i);
+            long sentAt = i == 0 ? intendedStart : System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<String> response = httpClient.send(
+                        step.toHttpRequest(variables, settings.getRequestTimeout()), HttpResponse.BodyHandlers.ofString());
+                success = response.statusCode() / 100 == 2;
+                if (success && !step.captures().isEmpty()) {
+                    step.capture(objectMapper.readTree(response.body()), variables);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("{} failed: {}", step.name(), ex.toString());
+                success = false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (measured) {
+                stats.get(step.endpoint()).record(System.nanoTime() - sentAt, success);
+            }
+            if (!success) {
+                // Later steps depend on what this one captured (an order id, a token)
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.gm2dev.demo_spring.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Reads the requests of a Postman v2.1 collection so scenarios can be written against the same
+// requests the team already maintains. Test scripts are JavaScript and are not executed; the
+// common "pm.collectionVariables.set('x', response.a.b)" capture is recognized and applied.
+public class PostmanCollection {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final Pattern CAPTURE = Pattern.compile(
+            "pm\\.(?:collectionVariables|environment|globals)\\.set\\(\\s*['\"](\\w+)['\"]\\s*,\\s*response\\.([\\w.]+?)(?:\\.toString\\(\\))?\\s*\\)");
+
+    private final Map<String, PostmanRequest> requests;
+    private final Map<String, String> variables;
+
+    private PostmanCollection(Map<String, PostmanRequest> requests, Map<String, String> variables) {
+        this.requests = requests;
+        this.variables = variables;
+    }
+
+    public static PostmanCollection load(Path path, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(path.toFile());
+
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (JsonNode variable : root.path("variable")) {
+            variables.put(variable.path("key").asText(), variable.path("value").asText());
+        }
+
+        Map<String, PostmanRequest> requests = new LinkedHashMap<>();
+        collect(root.path("item"), bearerToken(root.path("auth")), requests);
+        return new PostmanCollection(requests, variables);
+    }
+
+    public PostmanRequest request(String name) {
+        PostmanRequest request = requests.get(name);
+        if (request == null) {
+            throw new IllegalArgumentException("No request named '" + name + "' in the Postman collection");
+        }
+        return request;
+    }
+
+    public Map<String, String> variables() {
+        return variables;
+    }
+
+    private static void collect(JsonNode items, String inheritedToken, Map<String, PostmanRequest> requests) {
+        for (JsonNode item : items) {
+            String token = item.has("auth") ? bearerToken(item.path("auth")) : inheritedToken;
+            if (item.has("item")) {
+                collect(item.path("item"), token, requests);
+                continue;
+            }
+
+            JsonNode request = item.path("request");
+            if (request.has("auth")) {
+                token = bearerToken(request.path("auth"));
+            }
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (JsonNode header : request.path("header")) {
+                if (!header.path("disabled").asBoolean(false)) {
+                    headers.put(header.path("key").asText(), header.path("value").asText());
+                }
+            }
+
+            Map<String, String> captures = new LinkedHashMap<>();
+            for (JsonNode event : item.path("event")) {
+                if ("test".equals(event.path("listen").asText())) {
+                    for (JsonNode line : event.path("script").path("exec")) {
+                        Matcher matcher = CAPTURE.matcher(line.asText());
+                        while (matcher.find()) {
+                            captures.put(matcher.group(1), matcher.group(2));
+                        }
+                    }
+                }
+            }
+
+            JsonNode url = request.path("url");
+            String name = item.path("name").asText();
+            requests.put(name, new PostmanRequest(name,
+                    request.path("method").asText("GET").toUpperCase(Locale.ROOT),
+                    url.isTextual() ? url.asText() : url.path("raw").asText(),
+                    headers,
+                    request.path("body").path("raw").asText(null),
+                    token,
+                    captures));
+        }
+    }
+
+    // Returns the token template of a bearer auth block, or null for "noauth"
+    private static String bearerToken(JsonNode auth) {
+        if (!"bearer".equals(auth.path("type").asText())) {
+            return null;
+        }
+        for (JsonNode entry : auth.path("bearer")) {
+            if ("token".equals(entry.path("key").asText())) {
+                return entry.path("value").asText();
+            }
+        }
+        return null;
+    }
+
+    static String resolve(String template, Map<String, String> variables) {
+        Matcher matcher = VARIABLE.matcher(template);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String value = variables.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalStateException("Unresolved Postman variable {{" + matcher.group(1) + "}}");
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    public record PostmanRequest(String name, String method, String url, Map<String, String> headers,
+                                 String body, String bearerToken, Map<String, String> captures) {
+
+        // Kebab-case name used as the endpoint key in reports and SLO settings
+        public String endpoint() {
+            return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        }
+
+        public HttpRequest toHttpRequest(Map<String, String> variables, Duration timeout) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(encodedUri(resolve(url, variables)))
+                    .timeout(timeout)
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(resolve(body, variables)));
+            headers.forEach((key, value) -> builder.header(key, resolve(value, variables)));
+            if (bearerToken != null) {
+                builder.header("Authorization", "Bearer " + resolve(bearerToken, variables));
+            }
+            return builder.build();
+        }
+
+        public void capture(JsonNode response, Map<String, String> variables) {
+            captures.forEach((variable, path) -> {
+                JsonNode value = response;
+                for (String field : path.split("\\.")) {
+                    value = value.path(field);
+                }
+                if (!value.isMissingNode() && !value.isNull()) {
+                    variables.put(variable, value.asText());
+                }
+            });
+        }
+
+        // Postman keeps query values unencoded ("name=New Product")
+        private static URI encodedUri(String url) {
+            int query = url.indexOf('?');
+            if (query < 0) {
+                return URI.create(url);
+            }
+            List<String> parameters = new ArrayList<>();
+            for (String parameter : url.substring(query + 1).split("&")) {
+                int equals = parameter.indexOf('=');
+                parameters.add(equals < 0 ? encode(parameter)
+                        : encode(parameter.substring(0, equals)) + "=" + encode(parameter.substring(equals + 1)));
+            }
+            return URI.create(url.substring(0, query) + "?" + String.join("&", parameters));
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}
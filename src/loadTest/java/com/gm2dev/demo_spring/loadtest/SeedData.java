@@ -0,0 +1,95 @@
+package com.gm2dev.demo_spring.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Seeds the catalog and a pool of signed-in shoppers through the public API, then hands each session
+// a shopper token and a product id. Product picks are skewed so a few items take most of the traffic.
+@Slf4j
+public class SeedData {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Clothing", "Home", "Sports", "Toys", "Garden"};
+    private static final String[] NOUNS = {"Laptop", "Phone", "Headphones", "Novel", "Jacket", "Lamp", "Ball", "Puzzle", "Shovel"};
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<String> userTokens = new ArrayList<>();
+    private String adminToken;
+
+    public SeedData(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    public void seed(LoadTestSettings settings) throws IOException, InterruptedException {
+        Random random = new Random(settings.getSeed());
+        adminToken = signIn("admin", "admin123");
+
+        for (int i = 0; i < settings.getSeedProducts(); i++) {
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("name", NOUNS[i % NOUNS.length] + " " + i);
+            product.put("description", "Load test product " + i);
+            product.put("price", (100 + random.nextInt(100_000)) / 100.0);
+            // Deep enough that order scenarios never run a product out of stock
+            product.put("stockQuantity", 1_000_000);
+            product.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            productIds.add(post("/products", product, adminToken).path("id").asLong());
+        }
+
+        for (int i = 0; i < settings.getSeedUsers(); i++) {
+            String username = "shopper" + i;
+            post("/auth/signup", Map.of(
+                    "username", username,
+                    "email", username + "@loadtest.local",
+                    "password", "shopper123"), null);
+            userTokens.add(signIn(username, "shopper123"));
+        }
+
+        log.info("Seeded {} products and {} shoppers", productIds.size(), userTokens.size());
+    }
+
+    public void bind(Map<String, String> variables, Random random) {
+        String userToken = userTokens.get(random.nextInt(userTokens.size()));
+        variables.put("baseUrl", baseUrl);
+        variables.put("userToken", userToken);
+        variables.put("authToken", userToken);
+        variables.put("adminToken", adminToken);
+        // Squaring a uniform draw sends about 30% of picks to the first 10% of products
+        double draw = random.nextDouble();
+        variables.put("productId", productIds.get((int) (draw * draw * productIds.size())).toString());
+    }
+
+    private String signIn(String username, String password) throws IOException, InterruptedException {
+        return post("/auth/signin", Map.of("usernameOrEmail", username, "password", password), null)
+                .path("accessToken").asText();
+    }
+
+    private JsonNode post(String path, Object body, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding " + path + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,74 @@
+package com.gm2dev.demo_spring.config;
+
+import com.gm2dev.demo_spring.limit.BulkheadInterceptor;
+import com.gm2dev.demo_spring.limit.BulkheadRegistry;
+import com.gm2dev.demo_spring.repository.pool.BulkheadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.bulkheads", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return new BulkheadRegistry(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry()));
+    }
+
+    // Groups with a pool-size get a Hikari pool against the primary database; the main "dataSource" bean
+    // is wrapped in a router that picks the pool from the bulkhead the request runs in. Unordered, so it
+    // wraps after the database bulkhead has been put around the main pool.
+    @Bean
+    public static BeanPostProcessor bulkheadPoolPostProcessor(ObjectProvider<BulkheadProperties> properties,
+                                                              ObjectProvider<DataSourceProperties> dataSourceProperties,
+                                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource mainDataSource)) {
+                    return bean;
+                }
+                Map<String, DataSource> pools = new HashMap<>();
+                properties.getObject().getGroups().forEach((name, group) -> {
+                    if (group.getPoolSize() > 0) {
+                        pools.put(name, dedicatedPool(name, group.getPoolSize(), dataSourceProperties.getObject(),
+                                meterRegistry.getObject()));
+                    }
+                });
+                return pools.isEmpty() ? bean : new BulkheadRoutingDataSource(mainDataSource, pools);
+            }
+        };
+    }
+
+    private static HikariDataSource dedicatedPool(String name, int size, DataSourceProperties dataSourceProperties,
+                                                  MeterRegistry meterRegistry) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("bulkhead-" + name);
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(Math.min(size, 2));
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
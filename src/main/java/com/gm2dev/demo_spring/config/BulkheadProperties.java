@@ -0,0 +1,41 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.bulkheads")
+public class BulkheadProperties {
+    private boolean enabled = true;
+    // Keyed by the name used in @Bulkhead; a name without an entry gets the defaults below
+    private Map<String, Group> groups = new HashMap<>();
+
+    public Group groupFor(String name) {
+        return groups.getOrDefault(name, new Group());
+    }
+
+    @Data
+    public static class Group {
+        private int maxConcurrent = 20;
+        // Requests allowed to wait for a slot; 0 rejects as soon as all slots are busy
+        private int queueDepth = 50;
+        private Duration maxWait = Duration.ofSeconds(1);
+        private Overflow overflow = Overflow.UNAVAILABLE;
+        private long retryAfterSeconds = 1;
+        // Size of a Hikari pool used only by this group; 0 shares the main pool
+        private int poolSize = 0;
+    }
+
+    public enum Overflow {
+        // 503 with Retry-After: the service is busy
+        UNAVAILABLE,
+        // 429: the caller is sending more than this group accepts
+        TOO_MANY_REQUESTS
+    }
+}
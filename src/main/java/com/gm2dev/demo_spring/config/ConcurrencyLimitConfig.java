@@ -0,0 +1,42 @@
+package com.gm2dev.demo_spring.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.limit.AdaptiveConcurrencyLimitFilter;
+import com.gm2dev.demo_spring.limit.AdaptiveConcurrencyLimiter;
+import com.gm2dev.demo_spring.limit.AimdLimit;
+import com.gm2dev.demo_spring.limit.ConcurrencyLimit;
+import com.gm2dev.demo_spring.limit.GradientLimit;
+import com.gm2dev.demo_spring.limit.RequestPriorityClassifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        ConcurrencyLimit limit = switch (properties.getAlgorithm()) {
+            case GRADIENT -> new GradientLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                    properties.getSmoothing(), properties.getRttTolerance(), properties.getLongWindow());
+            case AIMD -> new AimdLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                    properties.getBackoffRatio());
+        };
+        return new AdaptiveConcurrencyLimiter(limit, properties.getShares(), properties.getTimeout(), meterRegistry);
+    }
+
+    // Just after the observation filter, so shed requests still show up in http.server.requests
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> adaptiveConcurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties, ObjectMapper objectMapper) {
+        FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new AdaptiveConcurrencyLimitFilter(limiter, new RequestPriorityClassifier(), objectMapper,
+                        properties.getRetryAfterSeconds(), properties.getUnsampledPaths()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
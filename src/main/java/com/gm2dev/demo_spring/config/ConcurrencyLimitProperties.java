@@ -0,0 +1,48 @@
+package com.gm2dev.demo_spring.config;
+
+import com.gm2dev.demo_spring.limit.RequestPriority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private Algorithm algorithm = Algorithm.GRADIENT;
+    private int initialLimit = 50;
+    private int minLimit = 10;
+    private int maxLimit = 500;
+    // A request slower than this, or answered with 503, counts as a sign of overload
+    private Duration timeout = Duration.ofSeconds(2);
+    private long retryAfterSeconds = 1;
+    // Slow by design (full rebuilds, bulk updates): still admitted and counted in flight, but their
+    // latency says nothing about overload and never moves the limit
+    private List<String> unsampledPaths = List.of("/orders/stats/rebuild", "/orders/status/bulk");
+
+    // Gradient: how far latency may rise above the long-term average before the limit shrinks
+    private double rttTolerance = 1.5;
+    // Gradient: weight of each new estimate, and the number of samples the long-term average spans
+    private double smoothing = 0.2;
+    private int longWindow = 600;
+
+    // AIMD: factor applied to the limit on every overload sample
+    private double backoffRatio = 0.9;
+
+    // Share of the limit each class may fill; lower classes are shed first as in-flight requests pile up
+    private Map<RequestPriority, Double> shares = new EnumMap<>(Map.of(
+            RequestPriority.CRITICAL, 1.0,
+            RequestPriority.NORMAL, 0.9,
+            RequestPriority.SHEDDABLE, 0.6));
+
+    public enum Algorithm {
+        GRADIENT,
+        AIMD
+    }
+}
@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -16,6 +17,8 @@ import java.util.Set;
 
 @Component
 @Profile({"dev", "test"})
+// Before PerfDataGenerator, which needs the roles
+@Order(0)
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
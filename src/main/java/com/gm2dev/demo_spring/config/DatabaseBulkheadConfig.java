@@ -0,0 +1,45 @@
+package com.gm2dev.demo_spring.config;
+
+import com.gm2dev.demo_spring.repository.pool.BulkheadDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Puts every Hikari pool (the default one, or primary and replica) behind a semaphore of its own size.
+// Wrapping happens after the pool's properties are bound, so the permits follow maximum-pool-size.
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseBulkheadConfig {
+
+    // Static, and dependencies resolved lazily: post-processors are created before regular beans
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(ObjectProvider<DatabaseBulkheadProperties> properties,
+                                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BulkheadPostProcessor(properties, meterRegistry);
+    }
+
+    // Ordered, so pools are wrapped before any unordered post-processor puts another layer around them
+    private record BulkheadPostProcessor(ObjectProvider<DatabaseBulkheadProperties> properties,
+                                         ObjectProvider<MeterRegistry> meterRegistry) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource pool) {
+                String name = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+                return new BulkheadDataSource(pool, name, pool.getMaximumPoolSize(),
+                        properties.getObject(), meterRegistry.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.bulkhead")
+public class DatabaseBulkheadProperties {
+    private boolean enabled = true;
+    // Callers allowed to wait for a connection per pool; beyond that they are rejected at once
+    private int maxWaiting = 200;
+    // Kept well below Hikari's connection-timeout so a saturated database sheds load quickly
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+    private long retryAfterSeconds = 1;
+}
@@ -0,0 +1,18 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+    private Duration ttl = Duration.ofHours(24);
+    private int cacheSize = 10_000;
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+    // An IN_PROGRESS claim older than this belongs to a request that died without committing
+    private Duration staleClaimAfter = Duration.ofMinutes(1);
+}
@@ -0,0 +1,22 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+// Counters live in this JVM only, so the engine must run on a single instance
+// (or behind routing that pins each hot SKU to one instance)
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.inventory.reservation")
+public class InventoryReservationProperties {
+    private boolean enabled = false;
+    private Set<Long> hotProductIds = new HashSet<>();
+    private int shards = 16;
+    private Duration reservationTtl = Duration.ofSeconds(30);
+    private int flushBatchSize = 1000;
+}
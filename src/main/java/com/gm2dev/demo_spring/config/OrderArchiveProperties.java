@@ -0,0 +1,21 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.orders.archive")
+public class OrderArchiveProperties {
+    private boolean enabled = true;
+    // How long a DELIVERED or CANCELLED order stays in the active partitions after its last change
+    private Duration closedAge = Duration.ofDays(90);
+    private int batchSize = 500;
+    // Caps one run so archiving a large backlog is spread over several runs
+    private int maxBatchesPerRun = 100;
+    // Monthly active partitions created ahead of time, so new orders never land in the default partition
+    private int partitionMonthsAhead = 3;
+}
@@ -0,0 +1,13 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.orders.bulk-status")
+public class OrderBulkStatusProperties {
+    // Orders validated and updated per transaction
+    private int chunkSize = 500;
+}
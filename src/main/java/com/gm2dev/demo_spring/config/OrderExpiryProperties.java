@@ -0,0 +1,19 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.orders.expiry")
+public class OrderExpiryProperties {
+    private boolean enabled = true;
+    // A PENDING order older than this is cancelled and its stock returned
+    private Duration pendingTtl = Duration.ofHours(24);
+    private int batchSize = 200;
+    // Caps one run so a large backlog is spread over several runs
+    private int maxBatchesPerRun = 50;
+}
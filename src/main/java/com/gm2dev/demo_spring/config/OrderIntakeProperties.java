@@ -0,0 +1,22 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.orders.intake")
+public class OrderIntakeProperties {
+    private int queueCapacity = 1000;
+    private int workers = 2;
+    private int maxBatchSize = 50;
+    // How long a worker waits for more orders after the first one before committing
+    private Duration batchLinger = Duration.ofMillis(5);
+    private Duration resultTtl = Duration.ofMinutes(10);
+    private long retryAfterSeconds = 1;
+    // How long shutdown waits for workers to commit what is already queued; the rest is marked FAILED
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.orders.stream")
+public class OrderStreamProperties {
+    private int maxConnectionsPerUser = 5;
+    // Clients reconnect with Last-Event-ID when a stream times out
+    private Duration timeout = Duration.ofMinutes(30);
+    private int replayBufferSize = 1000;
+}
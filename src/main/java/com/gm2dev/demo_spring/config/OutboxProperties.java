@@ -0,0 +1,25 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+    private boolean relayEnabled = true;
+    // log (one JSON line per event on the "outbox" logger) or memory (in-JVM buffer for local testing)
+    private String sink = "log";
+    private int batchSize = 500;
+    // A gap in event ids younger than this may be a transaction that has not committed yet
+    private Duration settleDelay = Duration.ofSeconds(2);
+    // Ids skipped past an older gap are re-checked this long; an event committing later is lost
+    private Duration gapHorizon = Duration.ofMinutes(10);
+    // Wider gaps are a sequence jump (e.g. after a crash), logged but not tracked id by id
+    private int maxTrackedGap = 1000;
+    private Duration retention = Duration.ofDays(7);
+    private int memorySinkCapacity = 10_000;
+}
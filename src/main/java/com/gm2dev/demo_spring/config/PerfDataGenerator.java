@@ -0,0 +1,376 @@
+package com.gm2dev.demo_spring.config;
+
+import com.gm2dev.demo_spring.entity.user.Role.RoleName;
+import com.gm2dev.demo_spring.repository.DatabasePlatform;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import com.gm2dev.demo_spring.repository.sales.SalesDailyCategoryRepository;
+import com.gm2dev.demo_spring.repository.sales.SalesDailyProductRepository;
+import com.gm2dev.demo_spring.repository.user.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fills the database with production-sized, skewed data for performance work ("perf" profile, combined
+// with "dev" for H2 or "prod" for PostgreSQL). Category sizes, product popularity and orders per user
+// follow Zipf distributions. Rows are generated in chunks on several threads, each chunk seeded from
+// (seed, table, chunk), so the data does not depend on thread scheduling. Ids come from a range reserved
+// on each table's sequence, which is then moved past it so the application keeps allocating safely.
+@Slf4j
+@Component
+@Profile("perf")
+public class PerfDataGenerator implements CommandLineRunner {
+
+    private static final String FIRST_USERNAME = "perf_user_0000000";
+
+    private static final String INSERT_PRODUCT_SQL = """
+            INSERT INTO products (id, name, description, price, stock_quantity, category, image_url, version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (id, username, email, password, first_name, last_name, enabled, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, ?)
+            """;
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_ORDER_SQL = """
+            INSERT INTO orders (id, user_id, status, total_amount, shipping_address, archived, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, FALSE, ?, ?)
+            """;
+    private static final String INSERT_ORDER_ITEM_SQL = """
+            INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, subtotal)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String[] DEPARTMENTS = {"Electronics", "Books", "Clothing", "Home", "Garden", "Sports",
+            "Toys", "Beauty", "Grocery", "Automotive", "Music", "Office", "Pets", "Health", "Jewelry", "Tools"};
+    private static final String[] ADJECTIVES = {"Classic", "Compact", "Deluxe", "Eco", "Essential", "Pro", "Smart",
+            "Ultra", "Vintage", "Wireless"};
+    private static final String[] NOUNS = {"Laptop", "Phone", "Headphones", "Novel", "Jacket", "Lamp", "Ball",
+            "Puzzle", "Shovel", "Blender", "Camera", "Backpack", "Watch", "Chair", "Speaker"};
+    private static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Diego", "Elena", "Facundo", "Gabriela",
+            "Hugo", "Ines", "Juan", "Lucia", "Martin", "Noelia", "Pablo", "Sofia", "Tomas"};
+    private static final String[] LAST_NAMES = {"Alvarez", "Benitez", "Castro", "Diaz", "Fernandez", "Gomez",
+            "Herrera", "Lopez", "Martinez", "Perez", "Romero", "Sosa", "Torres", "Vega"};
+    private static final String[] STREETS = {"Main Street", "Oak Avenue", "Maple Road", "Pine Lane", "Cedar Court",
+            "Elm Street", "Lakeview Drive", "Hillside Road"};
+
+    // Salts that give each table its own random streams
+    private static final int PRODUCTS = 1;
+    private static final int USERS = 2;
+    private static final int ORDERS = 3;
+    private static final int CATALOG = 4;
+
+    private final PerfDataProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoleRepository roleRepository;
+    private final OrderRepository orderRepository;
+    private final SalesDailyProductRepository productRollupRepository;
+    private final SalesDailyCategoryRepository categoryRollupRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public PerfDataGenerator(PerfDataProperties properties,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             RoleRepository roleRepository,
+                             OrderRepository orderRepository,
+                             SalesDailyProductRepository productRollupRepository,
+                             SalesDailyCategoryRepository categoryRollupRepository,
+                             PasswordEncoder passwordEncoder) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.roleRepository = roleRepository;
+        this.orderRepository = orderRepository;
+        this.productRollupRepository = productRollupRepository;
+        this.categoryRollupRepository = categoryRollupRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, FIRST_USERNAME);
+        if (existing != null && existing > 0) {
+            log.info("Performance data already present, skipping generation");
+            return;
+        }
+
+        log.info("Generating performance data: {} products, {} users, {} orders (seed {}, {} threads)",
+                properties.getProducts(), properties.getUsers(), properties.getOrders(), properties.getSeed(), properties.getThreads());
+        long started = System.nanoTime();
+        LocalDateTime historyStart = LocalDate.now().minusDays(properties.getHistoryDays()).atStartOfDay();
+
+        Catalog catalog = buildCatalog();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            long productBase = reserveIds("products", "products_id_seq", properties.getProducts());
+            generate(executor, "products", properties.getProducts(), (from, to) -> insertProducts(from, to, productBase, catalog, historyStart));
+
+            long userBase = reserveIds("users", "users_id_seq", properties.getUsers());
+            Long userRoleId = roleRepository.findByName(RoleName.USER)
+                    .orElseThrow(() -> new IllegalStateException("USER role not found"))
+                    .getId();
+            String passwordHash = passwordEncoder.encode(properties.getPassword());
+            generate(executor, "users", properties.getUsers(), (from, to) -> insertUsers(from, to, userBase, userRoleId, passwordHash, historyStart));
+
+            // Order ids are dense; line ids leave room for the longest order so every chunk can number its own lines
+            long orderBase = reserveIds("orders", "orders_id_seq", properties.getOrders());
+            long itemBase = reserveIds("order_items", "order_items_id_seq", (long) properties.getOrders() * properties.getMaxItemsPerOrder());
+            transactionTemplate.executeWithoutResult(status -> orderRepository.createPartitions(historyStart.toLocalDate(),
+                    (int) ChronoUnit.MONTHS.between(historyStart.toLocalDate().withDayOfMonth(1), LocalDate.now().withDayOfMonth(1)) + 3));
+            generate(executor, "orders", properties.getOrders(),
+                    (from, to) -> insertOrders(from, to, orderBase, productBase, userBase, itemBase, catalog, historyStart));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        rebuildSalesRollups(historyStart.toLocalDate());
+        if (DatabasePlatform.isPostgres(jdbcTemplate)) {
+            jdbcTemplate.execute("ANALYZE products, users, user_roles, orders, order_items, sales_daily_product, sales_daily_category");
+        }
+        log.info("Performance data generated in {}s; users sign in as perf_user_NNNNNNN / {}",
+                (System.nanoTime() - started) / 1_000_000_000, properties.getPassword());
+    }
+
+    // Product prices and categories are needed again to price order lines, so they are drawn once up front
+    private Catalog buildCatalog() {
+        SplittableRandom random = randomFor(CATALOG, 0);
+        ZipfSampler categorySizes = new ZipfSampler(properties.getCategories(), properties.getCategorySkew());
+        String[] categories = new String[properties.getCategories()];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = DEPARTMENTS[i % DEPARTMENTS.length] + " " + (i / DEPARTMENTS.length + 1);
+        }
+
+        long[] priceCents = new long[properties.getProducts()];
+        int[] category = new int[properties.getProducts()];
+        for (int i = 0; i < priceCents.length; i++) {
+            category[i] = categorySizes.sample(random);
+            // Log-uniform between 1.00 and 2000.00: many cheap items, a long tail of expensive ones
+            priceCents[i] = Math.round(100 * Math.exp(random.nextDouble() * Math.log(2000)));
+        }
+
+        return new Catalog(categories, category, priceCents,
+                permutation(properties.getProducts(), random), permutation(properties.getUsers(), random),
+                new ZipfSampler(properties.getProducts(), properties.getProductSkew()),
+                new ZipfSampler(properties.getUsers(), properties.getUserSkew()));
+    }
+
+    private void insertProducts(long from, long to, long productBase, Catalog catalog, LocalDateTime historyStart) {
+        SplittableRandom random = randomFor(PRODUCTS, from);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            int index = (int) i;
+            Timestamp createdAt = timestampWithin(historyStart, random);
+            // About 5% sold out, so in-stock filters have something to exclude
+            int stock = random.nextInt(100) < 5 ? 0 : random.nextInt(1, 1000);
+            rows.add(new Object[]{productBase + i,
+                    ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + i,
+                    "Generated product " + i + " for performance testing",
+                    BigDecimal.valueOf(catalog.priceCents()[index], 2),
+                    stock,
+                    catalog.categoryOf(index),
+                    "https://cdn.example.com/products/" + i + ".jpg",
+                    createdAt, createdAt});
+        }
+        batchInsert(INSERT_PRODUCT_SQL, rows);
+    }
+
+    private void insertUsers(long from, long to, long userBase, Long userRoleId, String passwordHash, LocalDateTime historyStart) {
+        SplittableRandom random = randomFor(USERS, from);
+        List<Object[]> users = new ArrayList<>((int) (to - from));
+        List<Object[]> roles = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            String username = String.format("perf_user_%07d", i);
+            Timestamp createdAt = timestampWithin(historyStart, random);
+            users.add(new Object[]{userBase + i, username, username + "@perf.local", passwordHash,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    createdAt, createdAt});
+            roles.add(new Object[]{userBase + i, userRoleId});
+        }
+        batchInsert(INSERT_USER_SQL, users);
+        batchInsert(INSERT_USER_ROLE_SQL, roles);
+    }
+
+    private void insertOrders(long from, long to, long orderBase, long productBase, long userBase, long itemBase,
+                              Catalog catalog, LocalDateTime historyStart) {
+        SplittableRandom random = randomFor(ORDERS, from);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> orders = new ArrayList<>((int) (to - from));
+        List<Object[]> items = new ArrayList<>((int) (to - from) * 3);
+        Set<Integer> lineProducts = new HashSet<>();
+
+        for (long i = from; i < to; i++) {
+            long orderId = orderBase + i;
+            LocalDateTime createdAt = historyStart.plusSeconds(random.nextLong(ChronoUnit.SECONDS.between(historyStart, now)));
+
+            // Geometric line count: most orders have one or two lines
+            int lines = 1;
+            while (lines < properties.getMaxItemsPerOrder() && random.nextDouble() < 0.45) {
+                lines++;
+            }
+
+            long totalCents = 0;
+            lineProducts.clear();
+            for (int line = 0; line < lines; line++) {
+                int product = catalog.productAt(catalog.productPopularity().sample(random));
+                if (!lineProducts.add(product)) {
+                    // (order, product) is unique; a repeated pick just makes the order shorter
+                    continue;
+                }
+                int quantity = random.nextInt(100) < 80 ? 1 : random.nextInt(2, 6);
+                long unitCents = catalog.priceCents()[product];
+                long subtotalCents = Math.multiplyExact(unitCents, quantity);
+                totalCents = Math.addExact(totalCents, subtotalCents);
+                items.add(new Object[]{itemBase + i * properties.getMaxItemsPerOrder() + line, orderId, productBase + product,
+                        quantity, BigDecimal.valueOf(unitCents, 2), BigDecimal.valueOf(subtotalCents, 2)});
+            }
+
+            int user = catalog.userAt(catalog.userActivity().sample(random));
+            Timestamp created = Timestamp.valueOf(createdAt);
+            orders.add(new Object[]{orderId, userBase + user, status(createdAt, now, random), BigDecimal.valueOf(totalCents, 2),
+                    random.nextInt(1, 9999) + " " + STREETS[random.nextInt(STREETS.length)] + ", Test City, " + random.nextInt(10000, 99999),
+                    created, created});
+        }
+        batchInsert(INSERT_ORDER_SQL, orders);
+        batchInsert(INSERT_ORDER_ITEM_SQL, items);
+    }
+
+    // Old orders are closed; only the last day can still be PENDING, or the expiry job would cancel it right away
+    private static String status(LocalDateTime createdAt, LocalDateTime now, SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (createdAt.isBefore(now.minusDays(14))) {
+            return roll < 92 ? "DELIVERED" : "CANCELLED";
+        }
+        if (createdAt.isBefore(now.minusDays(1))) {
+            return roll < 40 ? "DELIVERED" : roll < 75 ? "SHIPPED" : roll < 92 ? "CONFIRMED" : "CANCELLED";
+        }
+        return roll < 60 ? "PENDING" : roll < 95 ? "CONFIRMED" : "CANCELLED";
+    }
+
+    // Splits [0, total) into chunks, runs them on the pool and fails on the first chunk that fails
+    private void generate(ExecutorService executor, String table, long total, ChunkWriter writer) throws Exception {
+        long chunkSize = properties.getChunkSize();
+        AtomicLong written = new AtomicLong();
+        long logEvery = Math.max(chunkSize, total / 10);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 0; from < total; from += chunkSize) {
+            long start = from;
+            long end = Math.min(total, from + chunkSize);
+            chunks.add(executor.submit(() -> {
+                transactionTemplate.executeWithoutResult(status -> writer.write(start, end));
+                long done = written.addAndGet(end - start);
+                if (done / logEvery != (done - (end - start)) / logEvery || done == total) {
+                    log.info("Generated {}/{} {}", done, total, table);
+                }
+            }));
+        }
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException ex) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new IllegalStateException("Generating " + table + " failed", ex.getCause());
+        }
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += properties.getBatchSize()) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + properties.getBatchSize())));
+        }
+    }
+
+    // Claims [base, base + count) for generated rows and moves the sequence past it. Blocks the application
+    // already holds are below the value nextval returns here, so the range cannot collide with them.
+    private long reserveIds(String table, String sequence, long count) {
+        boolean postgres = DatabasePlatform.isPostgres(jdbcTemplate);
+        Long next = jdbcTemplate.queryForObject(postgres
+                ? "SELECT nextval('" + sequence + "')"
+                : "SELECT NEXT VALUE FOR " + sequence, Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long base = Math.max(next, maxId + 1);
+
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, base + count);
+        } else {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (base + count));
+        }
+        return base;
+    }
+
+    private void rebuildSalesRollups(LocalDate from) {
+        LocalDate today = LocalDate.now();
+        for (LocalDate day = from; !day.isAfter(today); day = day.plusDays(1)) {
+            LocalDate current = day;
+            transactionTemplate.executeWithoutResult(status -> {
+                productRollupRepository.rebuildDay(current);
+                categoryRollupRepository.rebuildDay(current);
+            });
+        }
+        log.info("Rebuilt sales rollups from {}", from);
+    }
+
+    private Timestamp timestampWithin(LocalDateTime historyStart, SplittableRandom random) {
+        return Timestamp.valueOf(historyStart.plusSeconds(random.nextLong(properties.getHistoryDays() * 86_400L)));
+    }
+
+    private SplittableRandom randomFor(int table, long chunk) {
+        return new SplittableRandom(properties.getSeed() * 1_000_003L + table * 7_919L + chunk);
+    }
+
+    // Fisher-Yates shuffle: popularity ranks map to scattered ids instead of the lowest ones
+    private static int[] permutation(int size, SplittableRandom random) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long from, long to);
+    }
+
+    private record Catalog(String[] categories, int[] category, long[] priceCents, int[] products, int[] users,
+                           ZipfSampler productPopularity, ZipfSampler userActivity) {
+
+        String categoryOf(int product) {
+            return categories[category[product]];
+        }
+
+        int productAt(int rank) {
+            return products[rank];
+        }
+
+        int userAt(int rank) {
+            return users[rank];
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.perf-data")
+public class PerfDataProperties {
+    // Same seed, same volumes: same rows (dates are relative to the day of generation)
+    private long seed = 42;
+    private int products = 1_000_000;
+    private int users = 200_000;
+    private int orders = 10_000_000;
+    private int categories = 200;
+    private int maxItemsPerOrder = 8;
+    // Zipf exponents (1.0 is classic Zipf, 0 is uniform) for category sizes, product popularity in
+    // order lines and orders per user
+    private double categorySkew = 1.1;
+    private double productSkew = 0.9;
+    private double userSkew = 0.5;
+    private int historyDays = 730;
+    private String password = "perf123";
+    private int threads = Runtime.getRuntime().availableProcessors();
+    // Rows generated and committed per task, and rows per JDBC batch within a task
+    private int chunkSize = 10_000;
+    private int batchSize = 1_000;
+}
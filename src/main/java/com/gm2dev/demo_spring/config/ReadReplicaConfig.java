@@ -0,0 +1,77 @@
+package com.gm2dev.demo_spring.config;
+
+import com.gm2dev.demo_spring.repository.routing.DataSourceTarget;
+import com.gm2dev.demo_spring.repository.routing.ReadWriteRoutingDataSource;
+import com.gm2dev.demo_spring.repository.routing.ReadYourWritesTracker;
+import com.gm2dev.demo_spring.repository.routing.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Replaces the single auto-configured pool with a primary pool, a replica pool and a router in front.
+// Each pool keeps its own Hikari metrics (tagged pool=primary / pool=replica).
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, ReadReplicaProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, properties.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadReplicaProperties properties) {
+        return new ReadYourWritesTracker(properties.getStickyWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(replicaLagMonitor, readYourWritesTracker, meterRegistry);
+        routingDataSource.setTargetDataSources(Map.<Object, Object>of(
+                DataSourceTarget.PRIMARY, primaryDataSource,
+                DataSourceTarget.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,22 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Pool settings for the replica bind from app.datasource.replica.hikari.*, like spring.datasource.hikari.*
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReadReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    // Read-only transactions fall back to the primary while the replica is further behind than this
+    private Duration maxLag = Duration.ofSeconds(5);
+    // After a user's write commits, that user's reads stay on the primary for this long
+    private Duration stickyWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,18 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sales.rollup")
+public class SalesRollupProperties {
+    // Days (including today) recomputed by the nightly rebuild to repair drift
+    private int rebuildLookbackDays = 2;
+    // Upper bound for one stats query or rebuild request
+    private int maxRangeDays = 366;
+    private int maxBuckets = 1000;
+    // Rows each (day, product) and (day, category) key is spread over for live writes; 1 disables sharding
+    private int writeShards = 8;
+}
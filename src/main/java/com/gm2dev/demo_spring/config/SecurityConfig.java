@@ -2,6 +2,7 @@ package com.gm2dev.demo_spring.config;
 
 import com.gm2dev.demo_spring.security.JwtAuthenticationEntryPoint;
 import com.gm2dev.demo_spring.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -62,6 +63,10 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async and error dispatches belong to a request that was already authorized; the JWT filter
+                // does not run on them, so without this an SSE stream ends in a 401 on completion or timeout
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                 // Public endpoints - most permissive first
                 .requestMatchers("/auth/**", "/public/**").permitAll()
                 .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
@@ -70,6 +75,7 @@ public class SecurityConfig {
 
                 // Public product browsing endpoints (e-commerce pattern)
                 .requestMatchers(HttpMethod.GET, "/products/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/products/batch", "/products/batch/availability").permitAll()
 
                 // Admin only endpoints
                 .requestMatchers("/actuator/**").hasRole("ADMIN")
@@ -0,0 +1,39 @@
+package com.gm2dev.demo_spring.config;
+
+import com.gm2dev.demo_spring.repository.accounting.SqlAccountingInterceptor;
+import com.gm2dev.demo_spring.repository.accounting.SqlAccountingStatistics;
+import com.gm2dev.demo_spring.repository.accounting.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class SqlAccountingConfig implements WebMvcConfigurer {
+
+    private final SqlAccountingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlAccountingHibernateCustomizer() {
+        return hibernateProperties -> {
+            if (properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+                hibernateProperties.put(AvailableSettings.STATS_BUILDER, (StatisticsFactory) SqlAccountingStatistics::new);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(new SqlAccountingInterceptor(properties, meterRegistry));
+        }
+    }
+}
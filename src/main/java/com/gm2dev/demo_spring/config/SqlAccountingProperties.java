@@ -0,0 +1,26 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql.accounting")
+public class SqlAccountingProperties {
+    private boolean enabled = true;
+    // LOG reports budget overruns after the request; FAIL aborts the request at the first statement over budget
+    private Mode mode = Mode.LOG;
+    // The same statement shape executed this many times in one request is reported as a likely N+1
+    private int repeatedStatementThreshold = 5;
+    // Max Hibernate statements per endpoint, keyed by "METHOD /pattern" (e.g. "GET /orders/my")
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    public enum Mode {
+        LOG,
+        FAIL
+    }
+}
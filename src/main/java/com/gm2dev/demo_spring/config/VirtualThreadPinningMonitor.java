@@ -0,0 +1,84 @@
+package com.gm2dev.demo_spring.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Watches for virtual threads that block while pinned to their carrier, which quietly turns the
+// virtual-thread mode back into a small fixed pool. Since JDK 24 synchronized no longer pins, so what
+// remains is mostly native frames (JNI, some driver and crypto code) and class initialisation.
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final VirtualThreadProperties properties;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(VirtualThreadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads spent blocked while pinned")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(properties.getPinnedThreshold()).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+
+        if (event.getStackTrace() == null) {
+            return;
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        if (frames.isEmpty()) {
+            return;
+        }
+        String site = describe(frames.get(0));
+        if (reportedSites.size() < properties.getMaxReportedSites() && reportedSites.add(site)) {
+            log.warn("Virtual thread {} pinned for {} ms at {}:\n\t{}", event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                    event.getDuration().toMillis(), site,
+                    frames.stream().limit(20).map(VirtualThreadPinningMonitor::describe).collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.threads.virtual")
+public class VirtualThreadProperties {
+    // Pinned intervals shorter than this are not recorded
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+    // Distinct pinning sites logged with a stack trace; further sites only show up in the metrics
+    private int maxReportedSites = 50;
+}
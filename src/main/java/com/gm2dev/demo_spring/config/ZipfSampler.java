@@ -0,0 +1,31 @@
+package com.gm2dev.demo_spring.config;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Draws ranks in [0, size) with probability proportional to 1 / (rank + 1)^exponent, so rank 0 is the
+// most frequent. The cumulative table is built once; each draw is a binary search.
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Zipf size must be positive");
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
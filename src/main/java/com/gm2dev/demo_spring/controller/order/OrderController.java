@@ -1,13 +1,29 @@
 package com.gm2dev.demo_spring.controller.order;
 
+import com.gm2dev.demo_spring.dto.order.BulkOrderStatusRequest;
+import com.gm2dev.demo_spring.dto.ApiGenericResponse;
+import com.gm2dev.demo_spring.dto.order.BulkOrderStatusResponse;
 import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
+import com.gm2dev.demo_spring.dto.order.OrderIntakeResponse;
 import com.gm2dev.demo_spring.dto.order.OrderResponse;
+import com.gm2dev.demo_spring.dto.order.OrderView;
+import com.gm2dev.demo_spring.dto.sales.SalesGrouping;
+import com.gm2dev.demo_spring.dto.sales.SalesStatsResponse;
 import com.gm2dev.demo_spring.entity.order.Order;
 import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.limit.Bulkhead;
 import com.gm2dev.demo_spring.mapper.order.OrderMapper;
+import com.gm2dev.demo_spring.mapper.sales.SalesMapper;
+import com.gm2dev.demo_spring.repository.order.OrderSummaryView;
 import com.gm2dev.demo_spring.security.CurrentUser;
 import com.gm2dev.demo_spring.security.UserPrincipal;
+import com.gm2dev.demo_spring.service.idempotency.IdempotencyService;
+import com.gm2dev.demo_spring.service.idempotency.IdempotentResponse;
+import com.gm2dev.demo_spring.service.order.OrderBulkStatusService;
+import com.gm2dev.demo_spring.service.order.OrderIntakeService;
 import com.gm2dev.demo_spring.service.order.OrderService;
+import com.gm2dev.demo_spring.service.order.OrderStatusStreamService;
+import com.gm2dev.demo_spring.service.sales.SalesRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -20,10 +36,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/orders")
@@ -32,8 +55,17 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Order Management", description = "Order creation and management APIs")
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
     private final OrderMapper orderMapper;
+    private final IdempotencyService idempotencyService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderStatusStreamService orderStatusStreamService;
+    private final OrderBulkStatusService orderBulkStatusService;
+    private final SalesRollupService salesRollupService;
+    private final SalesMapper salesMapper;
 
     @GetMapping("/my")
     @Operation(summary = "Get my orders", description = "Get paginated list of current user's orders")
@@ -41,22 +73,44 @@ public class OrderController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved orders"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public ResponseEntity<Page<OrderResponse>> getMyOrders(
+    public ResponseEntity<?> getMyOrders(
             @Parameter(description = "Filter by order status") @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Representation: full, summary (headers and item count) or expanded (products and users in side tables)")
+            @RequestParam(defaultValue = "full") String view,
+            @Parameter(description = "Include archived orders (closed orders past the archive age)")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @CurrentUser UserPrincipal currentUser,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
 
+        OrderView orderView = OrderView.from(view);
+        if (orderView != OrderView.FULL) {
+            return ResponseEntity.ok(toView(orderView, orderService.getUserOrderSummaries(currentUser, status, includeArchived, pageable)));
+        }
+
         Page<Order> orders;
         if (status != null) {
-            orders = orderService.getUserOrdersByStatus(currentUser, status, pageable);
+            orders = orderService.getUserOrdersByStatus(currentUser, status, includeArchived, pageable);
         } else {
-            orders = orderService.getUserOrders(currentUser, pageable);
+            orders = orderService.getUserOrders(currentUser, includeArchived, pageable);
         }
 
         Page<OrderResponse> orderResponses = orders.map(orderMapper::toOrderResponse);
         return ResponseEntity.ok(orderResponses);
     }
 
+    @GetMapping("/my/stream")
+    @Operation(summary = "Stream my order status changes", description = "Server-Sent Events stream of status transitions for the current user's orders")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "429", description = "Too many open streams for this user")
+    })
+    public SseEmitter streamMyOrders(
+            @Parameter(description = "Resume after this event id") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @CurrentUser UserPrincipal currentUser) {
+        return orderStatusStreamService.subscribe(currentUser.getId(), lastEventId);
+    }
+
     @GetMapping("/my/{orderId}")
     @Operation(summary = "Get my order by ID", description = "Get detailed information about a specific order")
     @ApiResponses(value = {
@@ -72,25 +126,68 @@ public class OrderController {
     }
 
     @PostMapping
+    @Bulkhead("checkout")
     @Operation(summary = "Create new order", description = "Create a new order with items")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "201", description = "Order created successfully"),
+        @ApiResponse(responseCode = "201", description = "Order created successfully (or replayed for a repeated Idempotency-Key)"),
         @ApiResponse(responseCode = "400", description = "Invalid input or insufficient stock"),
-        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "409", description = "Idempotency-Key in progress or reused with a different body")
     })
-    public ResponseEntity<OrderResponse> createOrder(
+    public ResponseEntity<?> createOrder(
             @Parameter(description = "Order creation data") @Valid @RequestBody CreateOrderRequest createOrderRequest,
+            @Parameter(description = "Client-generated key; retries with the same key return the first response")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @CurrentUser UserPrincipal currentUser) {
-        Order order = orderService.createOrder(
-                currentUser,
-                createOrderRequest.getShippingAddress(),
-                createOrderRequest.getOrderItems()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(orderMapper.toOrderResponse(order));
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(placeOrder(createOrderRequest, currentUser));
+        }
+
+        IdempotentResponse response = idempotencyService.execute(currentUser.getId(), idempotencyKey,
+                createOrderRequest, HttpStatus.CREATED, () -> placeOrder(createOrderRequest, currentUser));
+        return ResponseEntity.status(response.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(response.replayed()))
+                .body(response.body());
+    }
+
+    @PostMapping("/async")
+    @Bulkhead("checkout")
+    @Operation(summary = "Submit order asynchronously", description = "Validate and queue an order; poll the returned reference for the result")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Order accepted for processing"),
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "503", description = "Intake queue full, retry after the Retry-After delay")
+    })
+    public ResponseEntity<OrderIntakeResponse> submitOrder(
+            @Parameter(description = "Order creation data") @Valid @RequestBody CreateOrderRequest createOrderRequest,
+            @CurrentUser UserPrincipal currentUser) {
+        OrderIntakeResponse accepted = orderIntakeService.submit(currentUser, createOrderRequest);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/orders/intake/{reference}")
+                        .buildAndExpand(accepted.getReference())
+                        .toUri())
+                .body(accepted);
+    }
+
+    @GetMapping("/intake/{reference}")
+    @Operation(summary = "Get async order status", description = "Get the processing result of an order submitted to /orders/async")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved status"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired reference")
+    })
+    public ResponseEntity<OrderIntakeResponse> getIntakeStatus(
+            @Parameter(description = "Order reference returned by /orders/async") @PathVariable UUID reference,
+            @CurrentUser UserPrincipal currentUser) {
+        return ResponseEntity.ok(orderIntakeService.getStatus(reference, currentUser));
     }
 
     @PutMapping("/my/{orderId}/cancel")
+    @Bulkhead("checkout")
     @Operation(summary = "Cancel my order", description = "Cancel a pending order")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Order cancelled successfully"),
@@ -108,29 +205,80 @@ public class OrderController {
     // Admin endpoints
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
     @Operation(summary = "Get all orders", description = "Get paginated list of all orders (Admin only)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved orders"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
     })
-    public ResponseEntity<Page<OrderResponse>> getAllOrders(
+    public ResponseEntity<?> getAllOrders(
             @Parameter(description = "Filter by order status") @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Representation: full, summary (headers and item count) or expanded (products and users in side tables)")
+            @RequestParam(defaultValue = "full") String view,
+            @Parameter(description = "Include archived orders (closed orders past the archive age)")
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
 
+        OrderView orderView = OrderView.from(view);
+        if (orderView != OrderView.FULL) {
+            return ResponseEntity.ok(toView(orderView, orderService.getOrderSummaries(status, includeArchived, pageable)));
+        }
+
         Page<Order> orders;
         if (status != null) {
-            orders = orderService.getOrdersByStatus(status, pageable);
+            orders = orderService.getOrdersByStatus(status, includeArchived, pageable);
         } else {
-            orders = orderService.getAllOrders(pageable);
+            orders = orderService.getAllOrders(includeArchived, pageable);
         }
 
         Page<OrderResponse> orderResponses = orders.map(orderMapper::toOrderResponse);
         return ResponseEntity.ok(orderResponses);
     }
 
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
+    @Operation(summary = "Get sales statistics", description = "Units and revenue of non-cancelled orders by day, category or product, read from daily rollups (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range, grouping or limit"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    })
+    public ResponseEntity<SalesStatsResponse> getSalesStats(
+            @Parameter(description = "First day (inclusive), defaults to 29 days before to")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive), defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Grouping: day, category or product") @RequestParam(defaultValue = "day") String groupBy,
+            @Parameter(description = "Maximum category or product buckets, highest revenue first") @RequestParam(defaultValue = "50") int limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(salesMapper.toSalesStatsResponse(
+                salesRollupService.getStats(start, end, SalesGrouping.from(groupBy), limit)));
+    }
+
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
+    @Operation(summary = "Rebuild sales statistics", description = "Recompute the daily rollups for a date range from orders (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rollups rebuilt"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    })
+    public ResponseEntity<ApiGenericResponse> rebuildSalesStats(
+            @Parameter(description = "First day (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int days = salesRollupService.rebuild(from, to);
+        return ResponseEntity.ok(new ApiGenericResponse(true, "Rebuilt sales rollups for " + days + " days"));
+    }
+
     @GetMapping("/{orderId}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
     @Operation(summary = "Get order by ID", description = "Get detailed order information by ID (Admin only)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved order"),
@@ -146,6 +294,7 @@ public class OrderController {
 
     @PutMapping("/{orderId}/status")
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
     @Operation(summary = "Update order status", description = "Update the status of an order (Admin only)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Order status updated successfully"),
@@ -160,4 +309,36 @@ public class OrderController {
         Order order = orderService.updateOrderStatus(orderId, status);
         return ResponseEntity.ok(orderMapper.toOrderResponse(order));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/status/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
+    @Operation(summary = "Bulk update order status", description = "Move orders selected by id list or by status and creation range to a new status (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk update processed; rejected orders are listed with a reason"),
+        @ApiResponse(responseCode = "400", description = "Invalid selection or target status"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    })
+    public ResponseEntity<BulkOrderStatusResponse> bulkUpdateOrderStatus(
+            @Parameter(description = "Target status and order selection") @Valid @RequestBody BulkOrderStatusRequest request) {
+        return ResponseEntity.ok(orderBulkStatusService.updateStatuses(request));
+    }
+
+    private OrderResponse placeOrder(CreateOrderRequest createOrderRequest, UserPrincipal currentUser) {
+        Order order = orderService.createOrder(
+                currentUser,
+                createOrderRequest.getShippingAddress(),
+                createOrderRequest.getOrderItems()
+        );
+        return orderMapper.toOrderResponse(order, currentUser);
+    }
+
+    // Summary and expanded views are built from projections, never from the order entity graph
+    private Object toView(OrderView view, Page<OrderSummaryView> orders) {
+        if (view == OrderView.SUMMARY) {
+            return orders.map(orderMapper::toOrderSummaryResponse);
+        }
+        return orderMapper.toOrderExpandedPageResponse(orders, orderService.expandOrders(orders));
+    }
+}
@@ -1,9 +1,14 @@
 package com.gm2dev.demo_spring.controller.product;
 
 import com.gm2dev.demo_spring.dto.product.CreateProductRequest;
+import com.gm2dev.demo_spring.dto.product.ProductAvailabilityResponse;
+import com.gm2dev.demo_spring.dto.product.ProductAvailabilityResponse.StockStatus;
+import com.gm2dev.demo_spring.dto.product.ProductBatchRequest;
+import com.gm2dev.demo_spring.dto.product.ProductBatchResponse;
 import com.gm2dev.demo_spring.dto.product.ProductResponse;
 import com.gm2dev.demo_spring.dto.product.UpdateProductRequest;
 import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.limit.Bulkhead;
 import com.gm2dev.demo_spring.mapper.product.ProductMapper;
 import com.gm2dev.demo_spring.service.product.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,9 +28,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
+@Bulkhead("catalog")
 @RequestMapping("/products")
 @RequiredArgsConstructor
 @Tag(name = "Product Management", description = "Product catalog and management APIs")
@@ -79,6 +87,50 @@ public class ProductController {
         return ResponseEntity.ok(productMapper.toProductResponse(product));
     }
 
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Get up to 100 products in request order; unknown IDs are reported in missingIds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized ID list")
+    })
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(toBatchResponse(ids));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Get up to 100 products in request order; unknown IDs are reported in missingIds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized ID list")
+    })
+    public ResponseEntity<ProductBatchResponse> getProductsByIdsBody(
+            @Parameter(description = "Product IDs to resolve") @Valid @RequestBody ProductBatchRequest batchRequest) {
+        return ResponseEntity.ok(toBatchResponse(batchRequest.getProductIds()));
+    }
+
+    @GetMapping("/batch/availability")
+    @Operation(summary = "Check availability by IDs", description = "Get stock status for up to 100 products; unknown IDs are reported in missingIds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Availability checked"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized ID list")
+    })
+    public ResponseEntity<ProductAvailabilityResponse> getAvailabilityByIds(
+            @Parameter(description = "Comma-separated product IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(toAvailabilityResponse(ids));
+    }
+
+    @PostMapping("/batch/availability")
+    @Operation(summary = "Check availability by IDs", description = "Get stock status for up to 100 products; unknown IDs are reported in missingIds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Availability checked"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized ID list")
+    })
+    public ResponseEntity<ProductAvailabilityResponse> getAvailabilityByIdsBody(
+            @Parameter(description = "Product IDs to check") @Valid @RequestBody ProductBatchRequest batchRequest) {
+        return ResponseEntity.ok(toAvailabilityResponse(batchRequest.getProductIds()));
+    }
+
     @GetMapping("/categories")
     @Operation(summary = "Get all categories", description = "Get list of all available product categories")
     @ApiResponses(value = {
@@ -102,6 +154,7 @@ public class ProductController {
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Create new product", description = "Create a new product (Admin only)")
     @ApiResponses(value = {
@@ -120,6 +173,7 @@ public class ProductController {
 
     @PutMapping("/{productId}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Update product", description = "Update an existing product (Admin only)")
     @ApiResponses(value = {
@@ -127,20 +181,21 @@ public class ProductController {
         @ApiResponse(responseCode = "400", description = "Invalid input"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required"),
-        @ApiResponse(responseCode = "404", description = "Product not found")
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "409", description = "Product changed since the given version was read")
     })
     public ResponseEntity<ProductResponse> updateProduct(
             @Parameter(description = "Product ID") @PathVariable Long productId,
             @Parameter(description = "Product update data") @Valid @RequestBody UpdateProductRequest updateProductRequest) {
 
-        Product existingProduct = productService.getProductById(productId);
-        productMapper.updateProductFromRequest(updateProductRequest, existingProduct);
-        Product updatedProduct = productService.updateProduct(productId, existingProduct);
+        Product changes = productMapper.toProduct(updateProductRequest);
+        Product updatedProduct = productService.updateProduct(productId, changes, updateProductRequest.getVersion());
         return ResponseEntity.ok(productMapper.toProductResponse(updatedProduct));
     }
 
     @DeleteMapping("/{productId}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Delete product", description = "Delete a product (Admin only)")
     @ApiResponses(value = {
@@ -154,4 +209,27 @@ public class ProductController {
         productService.deleteProduct(productId);
         return ResponseEntity.noContent().build();
     }
+
+    private ProductBatchResponse toBatchResponse(List<Long> ids) {
+        Map<Long, Product> products = productService.getProductsByIds(ids);
+        List<ProductResponse> productResponses = products.values().stream()
+                .map(productMapper::toProductResponse)
+                .toList();
+        return new ProductBatchResponse(productResponses, missingIds(ids, products));
+    }
+
+    private ProductAvailabilityResponse toAvailabilityResponse(List<Long> ids) {
+        Map<Long, Integer> stock = productService.getStockQuantitiesByIds(ids);
+        Map<Long, StockStatus> availability = new LinkedHashMap<>();
+        stock.forEach((id, quantity) ->
+                availability.put(id, quantity > 0 ? StockStatus.IN_STOCK : StockStatus.OUT_OF_STOCK));
+        return new ProductAvailabilityResponse(availability, missingIds(ids, stock));
+    }
+
+    private List<Long> missingIds(List<Long> requestedIds, Map<Long, ?> found) {
+        return requestedIds.stream()
+                .filter(id -> id != null && !found.containsKey(id))
+                .distinct()
+                .toList();
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.gm2dev.demo_spring.dto.user.JwtAuthenticationResponse;
 import com.gm2dev.demo_spring.dto.user.LoginRequest;
 import com.gm2dev.demo_spring.dto.user.SignUpRequest;
 import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.limit.Bulkhead;
 import com.gm2dev.demo_spring.mapper.user.UserMapper;
 import com.gm2dev.demo_spring.service.user.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Bulkhead("auth")
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 @Tag(name = "Authentication", description = "Authentication management APIs")
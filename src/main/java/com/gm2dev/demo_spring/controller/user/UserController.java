@@ -2,6 +2,7 @@ package com.gm2dev.demo_spring.controller.user;
 
 import com.gm2dev.demo_spring.dto.user.UserResponse;
 import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.limit.Bulkhead;
 import com.gm2dev.demo_spring.mapper.user.UserMapper;
 import com.gm2dev.demo_spring.security.CurrentUser;
 import com.gm2dev.demo_spring.security.UserPrincipal;
@@ -70,6 +71,7 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead("admin")
     @Operation(summary = "Get all users", description = "Get paginated list of all users (Admin only)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved users"),
@@ -0,0 +1,42 @@
+package com.gm2dev.demo_spring.dto.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequest {
+
+    @NotNull
+    private OrderStatus status;
+
+    // Either explicit ids or a filter, not both
+    @Size(max = 10000)
+    private List<Long> orderIds;
+
+    @Valid
+    private Filter filter;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        @NotNull
+        private OrderStatus status;
+
+        @NotNull
+        private LocalDateTime createdFrom;
+
+        @NotNull
+        private LocalDateTime createdTo;
+    }
+}
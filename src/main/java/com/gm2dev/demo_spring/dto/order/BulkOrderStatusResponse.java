@@ -0,0 +1,30 @@
+package com.gm2dev.demo_spring.dto.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusResponse {
+    private OrderStatus status;
+    private int matched;
+    private int updated;
+    private int unchanged;
+    private List<Rejection> rejected;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+        private Long orderId;
+        private OrderStatus currentStatus;
+        private String reason;
+    }
+}
@@ -1,8 +1,10 @@
 package com.gm2dev.demo_spring.dto.order;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -27,7 +29,11 @@ public class CreateOrderRequest {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class OrderItemRequest {
+        @NotNull
         private Long productId;
+
+        @NotNull
+        @Min(1)
         private Integer quantity;
     }
 }
\ No newline at end of file
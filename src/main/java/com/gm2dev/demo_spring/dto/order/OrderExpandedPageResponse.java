@@ -0,0 +1,23 @@
+package com.gm2dev.demo_spring.dto.order;
+
+import com.gm2dev.demo_spring.dto.product.ProductSummaryResponse;
+import com.gm2dev.demo_spring.dto.user.UserSummaryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExpandedPageResponse {
+    private List<OrderExpandedResponse> content;
+    private Map<Long, UserSummaryResponse> users;
+    private Map<Long, ProductSummaryResponse> products;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
@@ -0,0 +1,36 @@
+package com.gm2dev.demo_spring.dto.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Items reference products by id; the product and user details live once in the page's side tables
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExpandedResponse {
+    private Long id;
+    private Long userId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private String shippingAddress;
+    private List<Line> orderItems;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long id;
+        private Long productId;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal subtotal;
+    }
+}
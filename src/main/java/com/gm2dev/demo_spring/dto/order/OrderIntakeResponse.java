@@ -0,0 +1,28 @@
+package com.gm2dev.demo_spring.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeResponse {
+    private UUID reference;
+    private IntakeStatus status;
+    private Long orderId;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    public enum IntakeStatus {
+        QUEUED,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,23 @@
+package com.gm2dev.demo_spring.dto.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+    private Long id;
+    private Long userId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private String shippingAddress;
+    private Long itemCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.dto.order;
+
+import java.util.Locale;
+
+public enum OrderView {
+    FULL,
+    SUMMARY,
+    EXPANDED;
+
+    public static OrderView from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown view: " + value + " (expected full, summary or expanded)");
+        }
+    }
+}
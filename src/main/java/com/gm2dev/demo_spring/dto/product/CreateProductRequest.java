@@ -1,6 +1,7 @@
 package com.gm2dev.demo_spring.dto.product;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -23,6 +24,7 @@ public class CreateProductRequest {
     private String description;
     
     @DecimalMin(value = "0.0", inclusive = false)
+    @Digits(integer = 8, fraction = 2)
     private BigDecimal price;
     
     @Min(0)
@@ -0,0 +1,21 @@
+package com.gm2dev.demo_spring.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailabilityResponse {
+    private Map<Long, StockStatus> availability;
+    private List<Long> missingIds;
+
+    public enum StockStatus {
+        IN_STOCK,
+        OUT_OF_STOCK
+    }
+}
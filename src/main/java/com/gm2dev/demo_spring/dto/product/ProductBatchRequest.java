@@ -0,0 +1,20 @@
+package com.gm2dev.demo_spring.dto.product;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequest {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotNull Long> productIds;
+}
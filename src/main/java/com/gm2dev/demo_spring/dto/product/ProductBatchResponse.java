@@ -0,0 +1,15 @@
+package com.gm2dev.demo_spring.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResponse {
+    private List<ProductResponse> products;
+    private List<Long> missingIds;
+}
@@ -18,6 +18,7 @@ public class ProductResponse {
     private Integer stockQuantity;
     private String category;
     private String imageUrl;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.gm2dev.demo_spring.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryResponse {
+    private Long id;
+    private String name;
+    private String category;
+    private BigDecimal price;
+    private String imageUrl;
+}
@@ -1,6 +1,7 @@
 package com.gm2dev.demo_spring.dto.product;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,7 @@ public class UpdateProductRequest {
     private String description;
 
     @DecimalMin(value = "0.0", inclusive = false)
+    @Digits(integer = 8, fraction = 2)
     private BigDecimal price;
 
     @Min(0)
@@ -31,4 +33,7 @@ public class UpdateProductRequest {
 
     @Size(max = 500)
     private String imageUrl;
+
+    // The product version the admin last read; required to change stockQuantity, since every sale moves it
+    private Long version;
 }
\ No newline at end of file
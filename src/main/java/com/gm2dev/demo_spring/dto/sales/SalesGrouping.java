@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.dto.sales;
+
+import java.util.Locale;
+
+public enum SalesGrouping {
+    DAY,
+    CATEGORY,
+    PRODUCT;
+
+    public static SalesGrouping from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown groupBy: " + value + " (expected day, category or product)");
+        }
+    }
+}
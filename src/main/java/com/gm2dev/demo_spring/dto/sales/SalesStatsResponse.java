@@ -0,0 +1,35 @@
+package com.gm2dev.demo_spring.dto.sales;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesStatsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private SalesGrouping groupBy;
+    private long lineCount;
+    private long units;
+    private BigDecimal revenue;
+    private List<Bucket> buckets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        // ISO date, category name or product id, depending on groupBy
+        private String key;
+        private long lineCount;
+        private long units;
+        private BigDecimal revenue;
+    }
+}
@@ -0,0 +1,13 @@
+package com.gm2dev.demo_spring.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryResponse {
+    private Long id;
+    private String username;
+}
@@ -0,0 +1,65 @@
+package com.gm2dev.demo_spring.entity.common;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// An amount in minor units (cents) held in a long. Sums and line totals stay on primitives, and the scale
+// is fixed, so equal amounts are always equal (no 1.0 vs 1.00). BigDecimal only appears at the edges:
+// the NUMERIC(…, 2) columns and the JSON API. Overflow throws instead of wrapping.
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    // Exact: an amount with fractions of a cent is rejected rather than silently rounded
+    public static Money of(BigDecimal amount) {
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return ofMinor(amount.setScale(SCALE, rounding).unscaledValue().longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    // For rates and discounts; the single rounding step happens here, never on intermediate values
+    public Money times(BigDecimal factor, RoundingMode rounding) {
+        return ofMinor(BigDecimal.valueOf(minorUnits).multiply(factor).setScale(0, rounding).longValueExact());
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
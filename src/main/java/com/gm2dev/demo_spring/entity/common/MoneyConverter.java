@@ -0,0 +1,21 @@
+package com.gm2dev.demo_spring.entity.common;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+// Applied to every Money attribute; the columns stay NUMERIC with scale 2
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gm2dev.demo_spring.entity.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"}))
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, so a reused key with a different payload is rejected instead of replayed
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    private Integer responseStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,6 @@
+package com.gm2dev.demo_spring.entity.idempotency;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,43 @@
+package com.gm2dev.demo_spring.entity.inventory;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// Stock consumed from in-memory reservations, committed with the order and
+// applied to products.stock_quantity later by the write-behind flusher
+@Entity
+@Table(name = "inventory_journal")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_journal_id_seq")
+    @SequenceGenerator(name = "inventory_journal_id_seq", sequenceName = "inventory_journal_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Set when a flush found stock_quantity lower than the journaled units; the row waits for a retry
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean shortfall = false;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
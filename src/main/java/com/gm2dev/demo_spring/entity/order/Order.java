@@ -1,8 +1,8 @@
 package com.gm2dev.demo_spring.entity.order;
 
+import com.gm2dev.demo_spring.entity.common.Money;
 import com.gm2dev.demo_spring.entity.user.User;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -13,7 +13,6 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -42,7 +41,8 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -54,15 +54,20 @@ public class Order {
     @Builder.Default
     private OrderStatus status = OrderStatus.PENDING;
 
-    @DecimalMin(value = "0.0", inclusive = false)
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    private Money totalAmount;
 
     @NotBlank
     @Size(max = 500)
     @Column(nullable = false)
     private String shippingAddress;
 
+    // Set only by the archiver (plain SQL) once a closed order ages out; archived rows live in separate
+    // partitions, and entity updates must never move a row back
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Boolean archived = false;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @Builder.Default
     private List<OrderItem> orderItems = new ArrayList<>();
@@ -80,11 +85,13 @@ public class Order {
         orderItem.setOrder(this);
     }
 
-
-    public BigDecimal calculateTotal() {
-        return orderItems.stream()
-                .map(OrderItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Sums the stored line subtotals in cents; runs once when the order is built, reads use totalAmount
+    public Money calculateTotal() {
+        long total = 0;
+        for (OrderItem orderItem : orderItems) {
+            total = Math.addExact(total, orderItem.getSubtotal().minorUnits());
+        }
+        return Money.ofMinor(total);
     }
 
     public void updateTotalAmount() {
@@ -1,16 +1,14 @@
 package com.gm2dev.demo_spring.entity.order;
 
+import com.gm2dev.demo_spring.entity.common.Money;
 import com.gm2dev.demo_spring.entity.product.Product;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Entity
 @Table(name = "order_items")
 @Data
@@ -20,7 +18,8 @@ import java.math.BigDecimal;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_seq")
+    @SequenceGenerator(name = "order_items_id_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,11 +34,20 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
 
-    @DecimalMin(value = "0.0", inclusive = false)
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal unitPrice;
-
-    public BigDecimal getSubtotal() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    private Money unitPrice;
+
+    // unitPrice x quantity, fixed when the line is created so reads never recompute it
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money subtotal;
+
+    public static OrderItem of(Product product, int quantity) {
+        Money unitPrice = Money.of(product.getPrice());
+        return OrderItem.builder()
+                .product(product)
+                .quantity(quantity)
+                .unitPrice(unitPrice)
+                .subtotal(unitPrice.times(quantity))
+                .build();
     }
 }
\ No newline at end of file
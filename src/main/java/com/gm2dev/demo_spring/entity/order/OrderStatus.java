@@ -5,5 +5,15 @@ public enum OrderStatus {
     CONFIRMED,
     SHIPPED,
     DELIVERED,
-    CANCELLED
-}
\ No newline at end of file
+    CANCELLED;
+
+    // Forward-only lifecycle; DELIVERED and CANCELLED are terminal
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == SHIPPED || target == CANCELLED;
+            case SHIPPED -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.gm2dev.demo_spring.entity.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // Stays IDENTITY: the relay only waits settle-delay for an id gap to fill, and ids pre-allocated
+    // in blocks per instance would leave gaps open far longer, letting the relay skip past events
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.gm2dev.demo_spring.entity.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An event id a consumer's offset moved past without seeing; re-checked until the gap horizon
+// in case it belonged to a transaction that committed after the settle delay
+@Entity
+@Table(name = "outbox_gaps")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxGap {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String consumer;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private LocalDateTime skippedAt;
+}
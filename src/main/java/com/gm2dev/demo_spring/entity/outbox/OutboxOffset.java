@@ -0,0 +1,33 @@
+package com.gm2dev.demo_spring.entity.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// Highest outbox event id delivered to a sink
+@Entity
+@Table(name = "outbox_offsets")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxOffset {
+
+    @Id
+    @Column(length = 100)
+    private String consumer;
+
+    @Column(nullable = false)
+    private Long lastEventId;
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package com.gm2dev.demo_spring.entity.sales;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Sales of one product category on one day, excluding cancelled orders
+@Entity
+@Table(name = "sales_daily_category")
+@IdClass(SalesDailyCategoryId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesDailyCategory {
+
+    // Products without a category are rolled up under this key
+    public static final String UNCATEGORIZED = "uncategorized";
+
+    @Id
+    private LocalDate salesDate;
+
+    @Id
+    @Column(length = 50)
+    private String category;
+
+    // Live writes spread one key over several rows to avoid a hot row; readers sum the shards
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long lineCount;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.entity.sales;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDailyCategoryId implements Serializable {
+    private LocalDate salesDate;
+    private String category;
+    private Integer shard;
+}
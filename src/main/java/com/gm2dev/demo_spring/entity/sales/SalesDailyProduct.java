@@ -0,0 +1,41 @@
+package com.gm2dev.demo_spring.entity.sales;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Sales of one product on one day (by order creation date), excluding cancelled orders.
+// Maintained by incremental upserts in the order transactions; see SalesRollupService.
+@Entity
+@Table(name = "sales_daily_product")
+@IdClass(SalesDailyProductId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesDailyProduct {
+
+    @Id
+    private LocalDate salesDate;
+
+    @Id
+    private Long productId;
+
+    // Live writes spread one key over several rows to avoid a hot row; readers sum the shards
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long lineCount;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,10 @@
+package com.gm2dev.demo_spring.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record OrderCreatedEvent(Long orderId, Long userId, BigDecimal totalAmount, List<Line> items) {
+
+    public record Line(Long productId, Integer quantity, BigDecimal unitPrice) {
+    }
+}
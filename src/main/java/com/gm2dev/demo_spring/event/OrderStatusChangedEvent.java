@@ -0,0 +1,6 @@
+package com.gm2dev.demo_spring.event;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+
+public record OrderStatusChangedEvent(Long orderId, Long userId, OrderStatus previousStatus, OrderStatus status) {
+}
@@ -0,0 +1,5 @@
+package com.gm2dev.demo_spring.event;
+
+// delta is negative for sales and positive for restocks and cancellations
+public record StockChangedEvent(Long productId, Integer delta) {
+}
@@ -0,0 +1,16 @@
+package com.gm2dev.demo_spring.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
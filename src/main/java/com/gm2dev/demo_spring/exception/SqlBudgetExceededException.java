@@ -0,0 +1,8 @@
+package com.gm2dev.demo_spring.exception;
+
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String endpoint, int budget) {
+        super("SQL statement budget of " + budget + " exceeded for " + endpoint);
+    }
+}
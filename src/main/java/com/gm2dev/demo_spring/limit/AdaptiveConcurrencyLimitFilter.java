@@ -0,0 +1,94 @@
+package com.gm2dev.demo_spring.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Runs ahead of Spring Security, so a shed request costs no authentication, transaction or pool wait.
+// Health probes bypass the limiter: an overloaded instance should still report itself.
+@Slf4j
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RequestPriorityClassifier classifier;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+    private final List<String> unsampledPaths;
+
+    public AdaptiveConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, RequestPriorityClassifier classifier,
+                                          ObjectMapper objectMapper, long retryAfterSeconds, List<String> unsampledPaths) {
+        this.limiter = limiter;
+        this.classifier = classifier;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.unsampledPaths = List.copyOf(unsampledPaths);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals("/public/health") || path.startsWith("/actuator/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestPriority priority = classifier.classify(request);
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire(priority);
+        if (permit.isEmpty()) {
+            log.debug("Shedding {} request {} {} (limit {}, in flight {})", priority, request.getMethod(),
+                    request.getRequestURI(), limiter.getLimit(), limiter.getInFlight());
+            reject(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (isUnsampled(request)) {
+                permit.get().discard();
+            } else {
+                // A full bulkhead isolates one group of endpoints; it must not shrink the limit for everyone
+                boolean overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                        && request.getAttribute(BulkheadInterceptor.REJECTED_ATTRIBUTE) == null;
+                permit.get().release(overloaded);
+            }
+        }
+    }
+
+    private boolean isUnsampled(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return unsampledPaths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Server is at capacity, retry later")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
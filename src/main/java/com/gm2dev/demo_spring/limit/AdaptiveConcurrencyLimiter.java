@@ -0,0 +1,92 @@
+package com.gm2dev.demo_spring.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admits a request while in-flight requests stay under the priority's share of the current limit.
+// Every admitted request reports its latency back, which is what moves the limit.
+public class AdaptiveConcurrencyLimiter {
+
+    private final ConcurrencyLimit limit;
+    private final Map<RequestPriority, Double> shares;
+    private final long timeoutNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> rejectedCounters = new EnumMap<>(RequestPriority.class);
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimit limit, Map<RequestPriority, Double> shares, Duration timeout,
+                                      MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.shares = new EnumMap<>(shares);
+        this.timeoutNanos = timeout.toNanos();
+
+        Gauge.builder("http.server.concurrency.limit", limit, ConcurrencyLimit::getLimit)
+                .description("Current adaptive limit on concurrent requests")
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejectedCounters.put(priority, Counter.builder("http.server.concurrency.rejected")
+                    .description("Requests shed by the concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public Optional<Permit> tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit.getLimit() * shares.getOrDefault(priority, 1.0)));
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= allowed) {
+                rejectedCounters.get(priority).increment();
+                return Optional.empty();
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return Optional.of(new Permit(current + 1));
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // overloaded: the request was answered with 503 downstream (bulkhead, intake queue)
+        public void release(boolean overloaded) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            long rtt = System.nanoTime() - startNanos;
+            inFlight.decrementAndGet();
+            limit.onSample(rtt, inFlightAtStart, overloaded || rtt >= timeoutNanos);
+        }
+
+        // Frees the slot without feeding a sample to the limit
+        public void discard() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.gm2dev.demo_spring.limit;
+
+// Additive increase while the limit is being used, multiplicative decrease on every overload sample
+public class AimdLimit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    private volatile int limit;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, Math.min(limit - 1, (int) (limit * backoffRatio)));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
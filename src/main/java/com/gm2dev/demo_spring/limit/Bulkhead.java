@@ -0,0 +1,14 @@
+package com.gm2dev.demo_spring.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Runs the annotated controller (or handler method, which overrides the class) in the named bulkhead,
+// configured under app.bulkheads.groups.<name>
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+    String value();
+}
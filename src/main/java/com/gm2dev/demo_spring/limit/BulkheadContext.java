@@ -0,0 +1,22 @@
+package com.gm2dev.demo_spring.limit;
+
+// The bulkhead the current request runs in, for routing its connections to a dedicated pool
+public final class BulkheadContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private BulkheadContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static void enter(String bulkhead) {
+        CURRENT.set(bulkhead);
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+}
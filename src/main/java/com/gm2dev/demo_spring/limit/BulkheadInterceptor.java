@@ -0,0 +1,82 @@
+package com.gm2dev.demo_spring.limit;
+
+import com.gm2dev.demo_spring.config.BulkheadProperties;
+import com.gm2dev.demo_spring.exception.ServiceOverloadedException;
+import com.gm2dev.demo_spring.exception.TooManyRequestsException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Enters the handler's @Bulkhead before the controller runs and leaves it when the request completes.
+// Overflow is reported through the usual exceptions, so GlobalExceptionHandler renders it.
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    // Set on requests a bulkhead turned away: that 503 says nothing about overall capacity
+    public static final String REJECTED_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".rejected";
+    private static final String ENTERED_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".entered";
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadInterceptor(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch continues a request that already went through its bulkhead
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Bulkhead annotation = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Bulkhead.class);
+        }
+        if (annotation == null) {
+            return true;
+        }
+
+        String name = annotation.value();
+        RequestBulkhead bulkhead = registry.get(name);
+        boolean entered;
+        try {
+            entered = bulkhead.tryEnter();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+
+        if (!entered) {
+            request.setAttribute(REJECTED_ATTRIBUTE, name);
+            BulkheadProperties.Group group = registry.groupFor(name);
+            if (group.getOverflow() == BulkheadProperties.Overflow.TOO_MANY_REQUESTS) {
+                throw new TooManyRequestsException("Too many concurrent " + name + " requests, retry later");
+            }
+            throw new ServiceOverloadedException("The " + name + " service is at capacity, retry later", group.getRetryAfterSeconds());
+        }
+
+        request.setAttribute(ENTERED_ATTRIBUTE, bulkhead);
+        BulkheadContext.enter(name);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        leave(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        leave(request);
+    }
+
+    private void leave(HttpServletRequest request) {
+        if (request.getAttribute(ENTERED_ATTRIBUTE) instanceof RequestBulkhead bulkhead) {
+            request.removeAttribute(ENTERED_ATTRIBUTE);
+            BulkheadContext.exit();
+            bulkhead.exit();
+        }
+    }
+}
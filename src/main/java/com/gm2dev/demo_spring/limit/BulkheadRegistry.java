@@ -0,0 +1,31 @@
+package com.gm2dev.demo_spring.limit;
+
+import com.gm2dev.demo_spring.config.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One bulkhead per name, created on first use from app.bulkheads.groups.<name>
+public class BulkheadRegistry {
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RequestBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public RequestBulkhead get(String name) {
+        return bulkheads.computeIfAbsent(name, key -> {
+            BulkheadProperties.Group group = properties.groupFor(key);
+            return new RequestBulkhead(key, group.getMaxConcurrent(), group.getQueueDepth(), group.getMaxWait(), meterRegistry);
+        });
+    }
+
+    public BulkheadProperties.Group groupFor(String name) {
+        return properties.groupFor(name);
+    }
+}
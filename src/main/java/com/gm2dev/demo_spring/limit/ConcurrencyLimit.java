@@ -0,0 +1,9 @@
+package com.gm2dev.demo_spring.limit;
+
+public interface ConcurrencyLimit {
+
+    int getLimit();
+
+    // Called once per finished request with its latency and the in-flight count when it started
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
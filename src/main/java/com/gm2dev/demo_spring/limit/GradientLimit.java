@@ -0,0 +1,51 @@
+package com.gm2dev.demo_spring.limit;
+
+// Follows the ratio between long-term and current latency: while latency stays near its average the
+// limit grows by about sqrt(limit) per sample, when the database slows down the ratio drops and the
+// limit shrinks with it, before any request has to time out.
+public class GradientLimit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double longRttWeight;
+
+    private volatile double estimatedLimit;
+    private double longRtt;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double rttTolerance, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longRttWeight = 2.0 / (longWindow + 1);
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        double shortRtt = Math.max(rttNanos, 1);
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * longRttWeight;
+
+        // After a long slow period the average lags behind; let it catch up once latency recovers
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // Too few requests in flight to tell anything about the limit
+        if (!dropped && inFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
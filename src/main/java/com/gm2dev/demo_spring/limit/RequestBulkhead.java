@@ -0,0 +1,99 @@
+package com.gm2dev.demo_spring.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A fixed number of slots plus a bounded, fair waiting line for one group of endpoints
+public class RequestBulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int queueDepth;
+    private final long maxWaitNanos;
+    private final Semaphore slots;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public RequestBulkhead(String name, int maxConcurrent, int queueDepth, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.queueDepth = queueDepth;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.slots = new Semaphore(maxConcurrent, true);
+
+        this.waitTimer = Timer.builder("http.server.bulkhead.wait")
+                .description("Time requests waited for a bulkhead slot")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.queueFullCounter = rejectionCounter(meterRegistry, name, "queue_full");
+        this.timeoutCounter = rejectionCounter(meterRegistry, name, "timeout");
+        Gauge.builder("http.server.bulkhead.in.use", slots, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("Requests running in the bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("http.server.bulkhead.waiting", waiting, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead slot")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("http.server.bulkhead.saturation", this, RequestBulkhead::saturation)
+                .description("Busy slots plus waiting requests, relative to slots plus queue depth")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Returns false when the request must be turned away: the waiting line is full or the wait timed out
+    public boolean tryEnter() throws InterruptedException {
+        if (slots.tryAcquire()) {
+            return true;
+        }
+
+        if (waiting.incrementAndGet() > queueDepth) {
+            waiting.decrementAndGet();
+            queueFullCounter.increment();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            timeoutCounter.increment();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void exit() {
+        slots.release();
+    }
+
+    private double saturation() {
+        int busy = maxConcurrent - slots.availablePermits();
+        return (double) (busy + waiting.get()) / (maxConcurrent + queueDepth);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String bulkhead, String reason) {
+        return Counter.builder("http.server.bulkhead.rejected")
+                .description("Requests turned away by a bulkhead")
+                .tag("bulkhead", bulkhead)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,9 @@
+package com.gm2dev.demo_spring.limit;
+
+public enum RequestPriority {
+    // Admin operations and checkout
+    CRITICAL,
+    NORMAL,
+    // Anonymous catalog browsing
+    SHEDDABLE
+}
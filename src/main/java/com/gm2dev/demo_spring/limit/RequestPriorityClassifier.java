@@ -0,0 +1,54 @@
+package com.gm2dev.demo_spring.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+// Classifies by route before authentication, so shedding costs no token parsing or user lookup.
+// The admin routes listed here are admin-only in the controllers, so claiming CRITICAL for them
+// without the role only buys a quick 403.
+public class RequestPriorityClassifier {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private static final List<String> ADMIN_PATHS = List.of(
+            "/actuator/**", "/orders/stats/**", "/orders/status/bulk", "/orders/{orderId:\\d+}/**");
+    private static final List<String> CATALOG_READ_POSTS = List.of("/products/batch", "/products/batch/availability");
+
+    public RequestPriority classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+
+        if (matchesAny(ADMIN_PATHS, path) || isCheckout(method, path) || isCatalogWrite(method, path)
+                || (method == HttpMethod.GET && (path.equals("/users") || path.equals("/orders")))) {
+            return RequestPriority.CRITICAL;
+        }
+        if (isCatalogRead(method, path) && request.getHeader(HttpHeaders.AUTHORIZATION) == null) {
+            return RequestPriority.SHEDDABLE;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private static boolean isCheckout(HttpMethod method, String path) {
+        return method == HttpMethod.POST && (path.equals("/orders") || path.equals("/orders/async"));
+    }
+
+    private static boolean isCatalogRead(HttpMethod method, String path) {
+        return isCatalog(path) && (method == HttpMethod.GET || (method == HttpMethod.POST && CATALOG_READ_POSTS.contains(path)));
+    }
+
+    private static boolean isCatalogWrite(HttpMethod method, String path) {
+        return isCatalog(path) && method != HttpMethod.GET && !CATALOG_READ_POSTS.contains(path);
+    }
+
+    private static boolean isCatalog(String path) {
+        return path.equals("/products") || path.startsWith("/products/");
+    }
+
+    private static boolean matchesAny(List<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+}
@@ -1,19 +1,79 @@
 package com.gm2dev.demo_spring.mapper.order;
 
+import com.gm2dev.demo_spring.dto.order.OrderExpandedPageResponse;
+import com.gm2dev.demo_spring.dto.order.OrderExpandedResponse;
 import com.gm2dev.demo_spring.dto.order.OrderItemResponse;
 import com.gm2dev.demo_spring.dto.order.OrderResponse;
+import com.gm2dev.demo_spring.dto.order.OrderSummaryResponse;
+import com.gm2dev.demo_spring.dto.product.ProductSummaryResponse;
+import com.gm2dev.demo_spring.dto.user.UserSummaryResponse;
+import com.gm2dev.demo_spring.entity.common.Money;
 import com.gm2dev.demo_spring.entity.order.Order;
 import com.gm2dev.demo_spring.entity.order.OrderItem;
 import com.gm2dev.demo_spring.mapper.product.ProductMapper;
 import com.gm2dev.demo_spring.mapper.user.UserMapper;
+import com.gm2dev.demo_spring.repository.order.OrderItemView;
+import com.gm2dev.demo_spring.repository.order.OrderSummaryView;
+import com.gm2dev.demo_spring.repository.product.ProductSummaryView;
+import com.gm2dev.demo_spring.repository.user.UserSummaryView;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import com.gm2dev.demo_spring.service.order.OrderExpansion;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = "spring", uses = {UserMapper.class, ProductMapper.class})
 public interface OrderMapper {
 
     OrderResponse toOrderResponse(Order order);
 
-    @Mapping(target = "subtotal", expression = "java(orderItem.getSubtotal())")
+    @Mapping(target = "id", source = "order.id")
+    @Mapping(target = "user", source = "currentUser")
+    OrderResponse toOrderResponse(Order order, UserPrincipal currentUser);
+
     OrderItemResponse toOrderItemResponse(OrderItem orderItem);
-}
\ No newline at end of file
+
+    OrderSummaryResponse toOrderSummaryResponse(OrderSummaryView view);
+
+    @Mapping(target = "orderItems", ignore = true)
+    OrderExpandedResponse toOrderExpandedResponse(OrderSummaryView view);
+
+    OrderExpandedResponse.Line toOrderLine(OrderItemView view);
+
+    List<ProductSummaryResponse> toProductSummaryResponses(List<ProductSummaryView> views);
+
+    List<UserSummaryResponse> toUserSummaryResponses(List<UserSummaryView> views);
+
+    default BigDecimal toAmount(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    default OrderExpandedPageResponse toOrderExpandedPageResponse(Page<OrderSummaryView> orders, OrderExpansion expansion) {
+        Map<Long, List<OrderExpandedResponse.Line>> linesByOrder = new HashMap<>();
+        for (OrderItemView item : expansion.items()) {
+            linesByOrder.computeIfAbsent(item.getOrderId(), orderId -> new ArrayList<>()).add(toOrderLine(item));
+        }
+
+        List<OrderExpandedResponse> content = new ArrayList<>(orders.getNumberOfElements());
+        for (OrderSummaryView order : orders) {
+            OrderExpandedResponse response = toOrderExpandedResponse(order);
+            response.setOrderItems(linesByOrder.getOrDefault(order.getId(), List.of()));
+            content.add(response);
+        }
+
+        Map<Long, UserSummaryResponse> users = new LinkedHashMap<>();
+        toUserSummaryResponses(expansion.users()).forEach(user -> users.put(user.getId(), user));
+        Map<Long, ProductSummaryResponse> products = new LinkedHashMap<>();
+        toProductSummaryResponses(expansion.products()).forEach(product -> products.put(product.getId(), product));
+
+        return new OrderExpandedPageResponse(content, users, products,
+                orders.getNumber(), orders.getSize(), orders.getTotalElements(), orders.getTotalPages());
+    }
+}
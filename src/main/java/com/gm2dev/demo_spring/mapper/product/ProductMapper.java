@@ -2,11 +2,12 @@ package com.gm2dev.demo_spring.mapper.product;
 
 import com.gm2dev.demo_spring.dto.product.CreateProductRequest;
 import com.gm2dev.demo_spring.dto.product.ProductResponse;
+import com.gm2dev.demo_spring.dto.product.ProductSummaryResponse;
 import com.gm2dev.demo_spring.dto.product.UpdateProductRequest;
 import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.repository.product.ProductSummaryView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -14,13 +15,18 @@ public interface ProductMapper {
 
     ProductResponse toProductResponse(Product product);
 
+    ProductSummaryResponse toProductSummaryResponse(ProductSummaryView view);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product toProduct(CreateProductRequest createProductRequest);
 
+    // Only the fields the request sets; the rest stay null so the update leaves them alone
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
-    void updateProductFromRequest(UpdateProductRequest updateProductRequest, @MappingTarget Product product);
+    @Mapping(target = "version", ignore = true)
+    Product toProduct(UpdateProductRequest updateProductRequest);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.gm2dev.demo_spring.mapper.sales;
+
+import com.gm2dev.demo_spring.dto.sales.SalesStatsResponse;
+import com.gm2dev.demo_spring.repository.sales.SalesBucketView;
+import com.gm2dev.demo_spring.service.sales.SalesStats;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface SalesMapper {
+
+    @Mapping(target = "key", source = "bucket")
+    SalesStatsResponse.Bucket toBucket(SalesBucketView view);
+
+    List<SalesStatsResponse.Bucket> toBuckets(List<SalesBucketView> views);
+
+    default SalesStatsResponse toSalesStatsResponse(SalesStats stats) {
+        long lineCount = 0;
+        long units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (SalesBucketView day : stats.days()) {
+            lineCount += day.getLineCount();
+            units += day.getUnits();
+            revenue = revenue.add(day.getRevenue());
+        }
+
+        return SalesStatsResponse.builder()
+                .from(stats.from())
+                .to(stats.to())
+                .groupBy(stats.groupBy())
+                .lineCount(lineCount)
+                .units(units)
+                .revenue(revenue)
+                .buckets(toBuckets(stats.buckets()))
+                .build();
+    }
+}
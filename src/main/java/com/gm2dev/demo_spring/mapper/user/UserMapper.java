@@ -2,11 +2,15 @@ package com.gm2dev.demo_spring.mapper.user;
 
 import com.gm2dev.demo_spring.dto.user.SignUpRequest;
 import com.gm2dev.demo_spring.dto.user.UserResponse;
+import com.gm2dev.demo_spring.dto.user.UserSummaryResponse;
 import com.gm2dev.demo_spring.entity.user.Role;
 import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.repository.user.UserSummaryView;
+import com.gm2dev.demo_spring.security.UserPrincipal;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
+import org.springframework.security.core.GrantedAuthority;
 
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,6 +21,8 @@ public interface UserMapper {
     @Mapping(target = "roles", source = "roles", qualifiedByName = "mapRolesToStrings")
     UserResponse toUserResponse(User user);
 
+    UserSummaryResponse toUserSummaryResponse(UserSummaryView view);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "password", ignore = true)
     @Mapping(target = "enabled", constant = "true")
@@ -34,4 +40,21 @@ public interface UserMapper {
                 .map(Role::getName)
                 .collect(Collectors.toSet());
     }
-}
\ No newline at end of file
+
+    // Builds the user view from the authenticated principal when the entity was never loaded
+    default UserResponse toUserResponse(UserPrincipal principal) {
+        if (principal == null) {
+            return null;
+        }
+        UserResponse userResponse = new UserResponse();
+        userResponse.setId(principal.getId());
+        userResponse.setUsername(principal.getUsername());
+        userResponse.setEmail(principal.getEmail());
+        userResponse.setEnabled(principal.isEnabled());
+        userResponse.setRoles(principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith("ROLE_") ? authority.substring("ROLE_".length()) : authority)
+                .collect(Collectors.toSet()));
+        return userResponse;
+    }
+}
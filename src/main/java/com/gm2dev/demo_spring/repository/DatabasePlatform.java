@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Hand-written SQL that differs between PostgreSQL (prod) and H2 (dev and tests) branches on this
+public final class DatabasePlatform {
+
+    private DatabasePlatform() {
+    }
+
+    public static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
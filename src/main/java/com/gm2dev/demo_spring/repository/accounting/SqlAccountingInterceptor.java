@@ -0,0 +1,89 @@
+package com.gm2dev.demo_spring.repository.accounting;
+
+import com.gm2dev.demo_spring.config.SqlAccountingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+// Opens the per-request SQL account around the handler and publishes it per endpoint (method + pattern).
+// An MVC interceptor rather than a servlet filter so the MockMvc integration suites are covered too.
+@Slf4j
+@RequiredArgsConstructor
+public class SqlAccountingInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlAccountingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String endpoint = request.getMethod() + " " + uriOf(request);
+        SqlRequestContext.begin(new SqlRequestStats(endpoint,
+                properties.getBudgets().getOrDefault(endpoint, 0),
+                properties.getMode() == SqlAccountingProperties.Mode.FAIL,
+                properties.getRepeatedStatementThreshold()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Streaming responses continue on other threads; only release this thread
+        SqlRequestContext.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlRequestStats stats = SqlRequestContext.end();
+        if (stats == null) {
+            return;
+        }
+
+        String method = request.getMethod();
+        String uri = uriOf(request);
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("Hibernate statements executed per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .description("Rows returned by queries and by-id fetches per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent in Hibernate queries per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getQueryNanos(), TimeUnit.NANOSECONDS);
+
+        for (String shape : stats.getRepeatedShapes()) {
+            Counter.builder("http.server.requests.sql.repeated")
+                    .description("Statement shapes repeated past the threshold in one request (likely N+1)")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Likely N+1 on {}: statement executed {} times: {}", stats.getEndpoint(),
+                    stats.getStatementsByShape().get(shape), shape);
+        }
+        if (stats.isOverBudget()) {
+            log.warn("SQL statement budget exceeded on {}: {} statements, budget {}", stats.getEndpoint(),
+                    stats.getStatements(), stats.getBudget());
+        }
+    }
+
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.gm2dev.demo_spring.repository.accounting;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+// Hibernate's own statistics, additionally charging query rows and time and by-id fetches
+// to the current request. Only called while hibernate.generate_statistics is on.
+public class SqlAccountingStatistics extends StatisticsImpl {
+
+    public SqlAccountingStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        SqlRequestStats stats = SqlRequestContext.current();
+        if (stats != null) {
+            stats.recordQuery(rows, time);
+        }
+    }
+
+    @Override
+    public void entityFetch(String entityName) {
+        super.entityFetch(entityName);
+        SqlRequestStats stats = SqlRequestContext.current();
+        if (stats != null) {
+            stats.recordFetch();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.gm2dev.demo_spring.repository.accounting;
+
+// Binds the stats of the request being served to its thread; statements run elsewhere
+// (schedulers, intake workers, SSE fan-out) are not attributed to any request
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private SqlRequestContext() {
+    }
+
+    public static void begin(SqlRequestStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static SqlRequestStats end() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,68 @@
+package com.gm2dev.demo_spring.repository.accounting;
+
+import com.gm2dev.demo_spring.exception.SqlBudgetExceededException;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// What one request executed through Hibernate. Only touched by the request thread.
+@Getter
+public class SqlRequestStats {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("in\\s*\\((\\s*\\?\\s*,)+\\s*\\?\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+
+    private final String endpoint;
+    private final int budget;
+    private final boolean failOverBudget;
+    private final int nPlusOneThreshold;
+
+    private int statements;
+    private long rows;
+    private long queryNanos;
+    private final Map<String, Integer> statementsByShape = new HashMap<>();
+    private final List<String> repeatedShapes = new ArrayList<>();
+
+    public SqlRequestStats(String endpoint, int budget, boolean failOverBudget, int nPlusOneThreshold) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.failOverBudget = failOverBudget;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        String shape = shapeOf(sql);
+        if (statementsByShape.merge(shape, 1, Integer::sum) == nPlusOneThreshold) {
+            repeatedShapes.add(shape);
+        }
+        if (failOverBudget && isOverBudget()) {
+            throw new SqlBudgetExceededException(endpoint, budget);
+        }
+    }
+
+    void recordQuery(int rowCount, long millis) {
+        rows += rowCount;
+        queryNanos += millis * 1_000_000;
+    }
+
+    void recordFetch() {
+        rows++;
+    }
+
+    public boolean isOverBudget() {
+        return budget > 0 && statements > budget;
+    }
+
+    // Statements that differ only in bound values or IN-list length share a shape
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim().toLowerCase()).replaceAll(" ");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return NUMBER.matcher(shape).replaceAll("?");
+    }
+}
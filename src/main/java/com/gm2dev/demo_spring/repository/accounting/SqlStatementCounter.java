@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.repository.accounting;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Sees every statement Hibernate prepares (queries, lazy loads, inserts, sequence calls).
+// Plain JdbcTemplate SQL bypasses it; those paths are hand-written set-based statements.
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlRequestStats stats = SqlRequestContext.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
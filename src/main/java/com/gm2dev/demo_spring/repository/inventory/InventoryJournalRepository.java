@@ -0,0 +1,24 @@
+package com.gm2dev.demo_spring.repository.inventory;
+
+import com.gm2dev.demo_spring.entity.inventory.InventoryJournalEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryJournalRepository extends JpaRepository<InventoryJournalEntry, Long> {
+
+    List<InventoryJournalEntry> findByShortfallFalseOrderByIdAsc(Limit limit);
+
+    List<InventoryJournalEntry> findByShortfallTrueOrderByIdAsc(Limit limit);
+
+    @Query("SELECT j.productId AS productId, SUM(j.quantity) AS quantity FROM InventoryJournalEntry j GROUP BY j.productId")
+    List<PendingStockView> sumPendingByProduct();
+
+    @Query("SELECT MIN(j.createdAt) FROM InventoryJournalEntry j")
+    LocalDateTime findOldestCreatedAt();
+}
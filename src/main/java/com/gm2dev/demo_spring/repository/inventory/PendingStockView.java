@@ -0,0 +1,6 @@
+package com.gm2dev.demo_spring.repository.inventory;
+
+public interface PendingStockView {
+    Long getProductId();
+    Long getQuantity();
+}
@@ -0,0 +1,12 @@
+package com.gm2dev.demo_spring.repository.order;
+
+import com.gm2dev.demo_spring.entity.common.Money;
+
+public interface OrderItemView {
+    Long getId();
+    Long getOrderId();
+    Long getProductId();
+    Integer getQuantity();
+    Money getUnitPrice();
+    Money getSubtotal();
+}
@@ -0,0 +1,14 @@
+package com.gm2dev.demo_spring.repository.order;
+
+import com.gm2dev.demo_spring.entity.common.Money;
+
+import java.time.LocalDateTime;
+
+public interface OrderLineSalesView {
+    Long getOrderId();
+    LocalDateTime getOrderCreatedAt();
+    Long getProductId();
+    String getCategory();
+    Integer getQuantity();
+    Money getSubtotal();
+}
@@ -9,16 +9,37 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
-    @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.user.id = :userId")
-    Page<Order> findByUserIdWithItems(@Param("userId") Long userId, Pageable pageable);
+    // Paged queries select ids only, so LIMIT/OFFSET runs in the database;
+    // the graph for a page is then loaded with findAllWithItemsByIdIn.
+    // List queries take the archived states to read: [false] keeps them on the active partitions.
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.archived IN :archived",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.archived IN :archived")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, @Param("archived") Collection<Boolean> archived, Pageable pageable);
 
-    @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.user.id = :userId AND o.status = :status")
-    Page<Order> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") OrderStatus status, Pageable pageable);
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.status = :status AND o.archived IN :archived",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.status = :status AND o.archived IN :archived")
+    Page<Long> findIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") OrderStatus status,
+                                        @Param("archived") Collection<Boolean> archived, Pageable pageable);
+
+    @Query(value = "SELECT o.id FROM Order o WHERE o.archived IN :archived",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.archived IN :archived")
+    Page<Long> findAllIds(@Param("archived") Collection<Boolean> archived, Pageable pageable);
+
+    @Query(value = "SELECT o.id FROM Order o WHERE o.status = :status AND o.archived IN :archived",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status AND o.archived IN :archived")
+    Page<Long> findIdsByStatus(@Param("status") OrderStatus status, @Param("archived") Collection<Boolean> archived, Pageable pageable);
+
+    // Products are left to batch fetching (hibernate.default_batch_fetch_size) so each one is loaded once per page
+    @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.id = :id")
     Optional<Order> findByIdWithItems(@Param("id") Long id);
@@ -26,9 +47,43 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.id = :id AND o.user.id = :userId")
     Optional<Order> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
-    @Query(value = "SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems",
-           countQuery = "SELECT COUNT(o) FROM Order o")
-    Page<Order> findAllWithItems(Pageable pageable);
+    // Header-only projections for list views: no entities, no items or products loaded
+    @Query(value = "SELECT o.id AS id, o.user.id AS userId, o.status AS status, o.totalAmount AS totalAmount, " +
+                   "o.shippingAddress AS shippingAddress, " +
+                   "(SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o) AS itemCount, " +
+                   "o.createdAt AS createdAt, o.updatedAt AS updatedAt " +
+                   "FROM Order o WHERE o.user.id = :userId AND (:status IS NULL OR o.status = :status) AND o.archived IN :archived",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND (:status IS NULL OR o.status = :status) " +
+                        "AND o.archived IN :archived")
+    Page<OrderSummaryView> findSummariesByUserId(@Param("userId") Long userId, @Param("status") OrderStatus status,
+                                                 @Param("archived") Collection<Boolean> archived, Pageable pageable);
+
+    @Query(value = "SELECT o.id AS id, o.user.id AS userId, o.status AS status, o.totalAmount AS totalAmount, " +
+                   "o.shippingAddress AS shippingAddress, " +
+                   "(SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o) AS itemCount, " +
+                   "o.createdAt AS createdAt, o.updatedAt AS updatedAt " +
+                   "FROM Order o WHERE (:status IS NULL OR o.status = :status) AND o.archived IN :archived",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE (:status IS NULL OR o.status = :status) AND o.archived IN :archived")
+    Page<OrderSummaryView> findSummaries(@Param("status") OrderStatus status, @Param("archived") Collection<Boolean> archived,
+                                         Pageable pageable);
+
+    @Query("SELECT oi.id AS id, oi.order.id AS orderId, oi.product.id AS productId, oi.quantity AS quantity, oi.unitPrice AS unitPrice, " +
+           "oi.subtotal AS subtotal FROM OrderItem oi WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemView> findItemViewsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // What a set-based cancellation needs to restock and adjust the sales rollups, without loading entities
+    @Query("SELECT oi.order.id AS orderId, oi.order.createdAt AS orderCreatedAt, oi.product.id AS productId, " +
+           "oi.product.category AS category, oi.quantity AS quantity, oi.subtotal AS subtotal " +
+           "FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    List<OrderLineSalesView> findSalesLinesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Bulk status changes only read (id, user, status); items and products are never loaded
+    @Query("SELECT o.id AS id, o.user.id AS userId, o.status AS status FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusView> findStatusViewsByIdIn(@Param("ids") Collection<Long> ids);
 
-    Page<Order> findByStatus(OrderStatus status, Pageable pageable);
-}
\ No newline at end of file
+    // Keyset-paged by id so each chunk is an index range scan instead of a growing OFFSET
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND o.archived = FALSE AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsByStatusCreatedBetween(@Param("status") OrderStatus status, @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package com.gm2dev.demo_spring.repository.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    // Marks up to limit DELIVERED/CANCELLED orders last updated before closedBefore as archived; returns the count
+    int archiveClosedOrders(LocalDateTime closedBefore, int limit);
+
+    // Locks up to limit active PENDING orders created before createdBefore, skipping rows other
+    // transactions hold (a checkout or cancellation in progress) instead of waiting on them
+    List<StalePendingOrder> lockStalePendingOrders(LocalDateTime createdBefore, int limit);
+
+    // Locks one order row until the transaction ends, waiting for a sweep or status change holding it.
+    // Entity-level status changes take it before reading, so they never act on a status that is being replaced.
+    void lockOrder(Long orderId);
+
+    // Moves the given orders from expected to target and returns the ids this statement changed, so a
+    // row another transaction moved in the meantime is never reported (or announced) as updated here
+    List<Long> updateStatus(Collection<Long> orderIds, OrderStatus expected, OrderStatus target, LocalDateTime updatedAt);
+
+    // Cancels the given orders if still PENDING; returns the number of rows changed
+    int cancelPendingOrders(Collection<Long> orderIds);
+
+    // Deletes the user's orders and their items. The database cascades from users to orders, but since V12
+    // nothing cascades from orders to order_items except a PostgreSQL trigger, and H2 has neither.
+    void deleteByUserId(Long userId);
+
+    // Creates monthly active and yearly archive partitions from startMonth through monthsAhead, each with
+    // a unique index on id (PostgreSQL only)
+    void createPartitions(LocalDate startMonth, int monthsAhead);
+
+    // On PostgreSQL the primary key is (id, archived, created_at) and order_items has no foreign key to
+    // orders, so id uniqueness across partitions and item ownership rest on ids coming only from
+    // orders_id_seq. These count violations; both are 0 while the invariant holds.
+    long countDuplicateOrderIds();
+
+    long countOrphanOrderItems();
+}
@@ -0,0 +1,202 @@
+package com.gm2dev.demo_spring.repository.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.repository.DatabasePlatform;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // On PostgreSQL, flipping archived moves the row from orders_active to orders_archive.
+    // updated_at is left alone so it keeps meaning "last business change".
+    private static final String ARCHIVE_SQL =
+            "UPDATE orders SET archived = TRUE WHERE archived = FALSE AND id IN (" +
+            "SELECT id FROM orders WHERE archived = FALSE AND status IN ('DELIVERED', 'CANCELLED') AND updated_at < ? " +
+            "ORDER BY id FETCH FIRST ? ROWS ONLY)";
+
+    private static final String LOCK_STALE_PENDING_SQL =
+            "SELECT id, user_id FROM orders WHERE status = 'PENDING' AND archived = FALSE AND created_at < ? " +
+            "ORDER BY id FETCH FIRST ? ROWS ONLY FOR UPDATE SKIP LOCKED";
+
+    private static final String LOCK_ORDER_SQL = "SELECT id FROM orders WHERE id = ? FOR UPDATE";
+
+    private static final String UPDATE_STATUS_RETURNING_SQL =
+            "UPDATE orders SET status = :target, updated_at = :now WHERE id IN (:ids) AND status = :expected RETURNING id";
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE orders SET status = :target, updated_at = :now WHERE id = :id AND status = :expected";
+
+    private static final String CANCEL_PENDING_SQL =
+            "UPDATE orders SET status = 'CANCELLED', updated_at = :now WHERE id IN (:ids) AND status = 'PENDING'";
+
+    private static final String CREATE_PARTITION_SQL =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')";
+
+    // The partitioned primary key cannot be unique on id alone; each partition can
+    private static final String CREATE_PARTITION_ID_INDEX_SQL = "CREATE UNIQUE INDEX IF NOT EXISTS %s_id_key ON %s (id)";
+
+    private static final String COUNT_DUPLICATE_IDS_SQL =
+            "SELECT COUNT(*) FROM (SELECT id FROM orders GROUP BY id HAVING COUNT(*) > 1) duplicates";
+
+    private static final String DELETE_USER_ORDER_ITEMS_SQL =
+            "DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)";
+
+    private static final String DELETE_USER_ORDERS_SQL = "DELETE FROM orders WHERE user_id = ?";
+
+    private static final String COUNT_ORPHAN_ITEMS_SQL =
+            "SELECT COUNT(*) FROM order_items oi WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = oi.order_id)";
+
+    private static final String SAVEPOINT_SQL = "SAVEPOINT create_partition";
+    private static final String RELEASE_SAVEPOINT_SQL = "RELEASE SAVEPOINT create_partition";
+    private static final String ROLLBACK_TO_SAVEPOINT_SQL = "ROLLBACK TO SAVEPOINT create_partition";
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public int archiveClosedOrders(LocalDateTime closedBefore, int limit) {
+        // Status changes still pending in the persistence context must be visible to the statement
+        entityManager.flush();
+        return jdbcTemplate.update(ARCHIVE_SQL, Timestamp.valueOf(closedBefore), limit);
+    }
+
+    @Override
+    public List<StalePendingOrder> lockStalePendingOrders(LocalDateTime createdBefore, int limit) {
+        entityManager.flush();
+        return jdbcTemplate.query(LOCK_STALE_PENDING_SQL,
+                (rs, rowNum) -> new StalePendingOrder(rs.getLong("id"), rs.getLong("user_id")),
+                Timestamp.valueOf(createdBefore), limit);
+    }
+
+    @Override
+    public void lockOrder(Long orderId) {
+        // An order created earlier in this transaction has to be inserted before it can be locked
+        entityManager.flush();
+        jdbcTemplate.queryForList(LOCK_ORDER_SQL, Long.class, orderId);
+    }
+
+    @Override
+    public List<Long> updateStatus(Collection<Long> orderIds, OrderStatus expected, OrderStatus target, LocalDateTime updatedAt) {
+        entityManager.flush();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("target", target.name())
+                .addValue("expected", expected.name())
+                .addValue("now", Timestamp.valueOf(updatedAt));
+
+        List<Long> updated;
+        if (isPostgres()) {
+            updated = namedParameterJdbcTemplate.queryForList(UPDATE_STATUS_RETURNING_SQL, params.addValue("ids", orderIds), Long.class);
+        } else {
+            // H2 has no RETURNING; one guarded UPDATE per id tells just as exactly which rows changed
+            updated = new ArrayList<>();
+            for (Long orderId : orderIds) {
+                if (namedParameterJdbcTemplate.update(UPDATE_STATUS_SQL, params.addValue("id", orderId)) == 1) {
+                    updated.add(orderId);
+                }
+            }
+        }
+        // Loaded orders would still show the old status
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public int cancelPendingOrders(Collection<Long> orderIds) {
+        return namedParameterJdbcTemplate.update(CANCEL_PENDING_SQL, new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("ids", orderIds));
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        entityManager.flush();
+        jdbcTemplate.update(DELETE_USER_ORDER_ITEMS_SQL, userId);
+        jdbcTemplate.update(DELETE_USER_ORDERS_SQL, userId);
+        entityManager.clear();
+    }
+
+    @Override
+    public void createPartitions(LocalDate startMonth, int monthsAhead) {
+        if (!isPostgres()) {
+            return;
+        }
+
+        LocalDate firstMonth = startMonth.withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = firstMonth.plusMonths(i);
+            createPartition("orders_active", month.format(MONTH_SUFFIX), month, month.plusMonths(1));
+        }
+
+        // Archived rows keep their created_at, so the archive needs a partition for every year it may receive
+        LocalDate lastYear = firstMonth.plusMonths(monthsAhead).withDayOfYear(1);
+        for (LocalDate year = firstMonth.withDayOfYear(1); !year.isAfter(lastYear); year = year.plusYears(1)) {
+            createPartition("orders_archive", String.valueOf(year.getYear()), year, year.plusYears(1));
+        }
+    }
+
+    @Override
+    public long countDuplicateOrderIds() {
+        Long duplicates = jdbcTemplate.queryForObject(COUNT_DUPLICATE_IDS_SQL, Long.class);
+        return duplicates == null ? 0 : duplicates;
+    }
+
+    @Override
+    public long countOrphanOrderItems() {
+        Long orphans = jdbcTemplate.queryForObject(COUNT_ORPHAN_ITEMS_SQL, Long.class);
+        return orphans == null ? 0 : orphans;
+    }
+
+    // A failed statement aborts the whole PostgreSQL transaction, so inside one each partition gets its
+    // own savepoint; otherwise one bad range would fail every later CREATE and roll back the earlier ones
+    private void createPartition(String parent, String suffix, LocalDate from, LocalDate to) {
+        String partition = parent + "_p" + suffix;
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (inTransaction) {
+            jdbcTemplate.execute(SAVEPOINT_SQL);
+        }
+        try {
+            jdbcTemplate.execute(String.format(CREATE_PARTITION_SQL, partition, parent, from, to));
+            jdbcTemplate.execute(String.format(CREATE_PARTITION_ID_INDEX_SQL, partition, partition));
+            if (inTransaction) {
+                jdbcTemplate.execute(RELEASE_SAVEPOINT_SQL);
+            }
+        } catch (DataAccessException ex) {
+            if (inTransaction) {
+                jdbcTemplate.execute(ROLLBACK_TO_SAVEPOINT_SQL);
+            }
+            // Typically rows for the range already sit in the default partition; they stay readable there
+            log.warn("Could not create orders partition {} [{}, {}): {}", partition, from, to, ex.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = DatabasePlatform.isPostgres(jdbcTemplate);
+        }
+        return postgres;
+    }
+}
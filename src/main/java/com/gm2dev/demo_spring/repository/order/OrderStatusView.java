@@ -0,0 +1,9 @@
+package com.gm2dev.demo_spring.repository.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+
+public interface OrderStatusView {
+    Long getId();
+    Long getUserId();
+    OrderStatus getStatus();
+}
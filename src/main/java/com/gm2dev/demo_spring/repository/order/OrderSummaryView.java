@@ -0,0 +1,17 @@
+package com.gm2dev.demo_spring.repository.order;
+
+import com.gm2dev.demo_spring.entity.common.Money;
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public interface OrderSummaryView {
+    Long getId();
+    Long getUserId();
+    OrderStatus getStatus();
+    Money getTotalAmount();
+    String getShippingAddress();
+    Long getItemCount();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
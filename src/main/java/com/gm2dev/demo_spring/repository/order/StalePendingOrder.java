@@ -0,0 +1,4 @@
+package com.gm2dev.demo_spring.repository.order;
+
+public record StalePendingOrder(Long id, Long userId) {
+}
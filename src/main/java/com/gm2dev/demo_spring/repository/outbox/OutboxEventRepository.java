@@ -0,0 +1,28 @@
+package com.gm2dev.demo_spring.repository.outbox;
+
+import com.gm2dev.demo_spring.entity.outbox.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long lastEventId, Limit limit);
+
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e")
+    Long findMaxId();
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.id > :lastEventId")
+    LocalDateTime findOldestCreatedAtAfter(@Param("lastEventId") Long lastEventId);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :deliveredId AND e.createdAt < :cutoff")
+    int deleteDelivered(@Param("deliveredId") Long deliveredId, @Param("cutoff") LocalDateTime cutoff);
+}
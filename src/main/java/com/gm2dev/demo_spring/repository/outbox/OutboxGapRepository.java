@@ -0,0 +1,22 @@
+package com.gm2dev.demo_spring.repository.outbox;
+
+import com.gm2dev.demo_spring.entity.outbox.OutboxGap;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxGapRepository extends JpaRepository<OutboxGap, Long> {
+
+    List<OutboxGap> findByConsumerOrderByEventIdAsc(String consumer, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxGap g WHERE g.consumer = :consumer AND g.skippedAt < :cutoff")
+    int deleteExpired(@Param("consumer") String consumer, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,20 @@
+package com.gm2dev.demo_spring.repository.outbox;
+
+import com.gm2dev.demo_spring.entity.outbox.OutboxOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    // Held for the relay transaction so only one instance delivers to a consumer at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxOffset o WHERE o.consumer = :consumer")
+    Optional<OutboxOffset> findForUpdate(@Param("consumer") String consumer);
+}
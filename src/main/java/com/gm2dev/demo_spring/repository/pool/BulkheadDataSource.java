@@ -0,0 +1,150 @@
+package com.gm2dev.demo_spring.repository.pool;
+
+import com.gm2dev.demo_spring.config.DatabaseBulkheadProperties;
+import com.gm2dev.demo_spring.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admits at most one caller per pooled connection. With virtual threads thousands of requests can reach
+// the pool at once; instead of all of them parking on Hikari's connection-timeout, a bounded number wait
+// here (fair, short timeout) and the rest get a 503 immediately. A permit is held until the connection
+// handed out is closed, i.e. returned to the pool.
+public class BulkheadDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final long retryAfterSeconds;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public BulkheadDataSource(DataSource pool, String name, int size, DatabaseBulkheadProperties properties,
+                              MeterRegistry meterRegistry) {
+        super(pool);
+        this.permits = new Semaphore(size, true);
+        this.maxWaiting = properties.getMaxWaiting();
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+
+        this.waitTimer = Timer.builder("datasource.bulkhead.wait")
+                .description("Time spent waiting for a database bulkhead permit")
+                .tag("pool", name)
+                .register(meterRegistry);
+        this.queueFullCounter = rejectionCounter(meterRegistry, name, "queue_full");
+        this.timeoutCounter = rejectionCounter(meterRegistry, name, "timeout");
+        Gauge.builder("datasource.bulkhead.in.use", permits, semaphore -> size - semaphore.availablePermits())
+                .description("Connections currently checked out through the bulkhead")
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("datasource.bulkhead.waiting", waiting, AtomicInteger::get)
+                .description("Callers waiting for a database bulkhead permit")
+                .tag("pool", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    // The wrapper replaces the pool bean, so the container's shutdown callback has to reach the pool through it
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            queueFullCounter.increment();
+            throw new ServiceOverloadedException("Database is saturated, retry later", retryAfterSeconds);
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeoutCounter.increment();
+                throw new ServiceOverloadedException("Timed out waiting for a database connection, retry later", retryAfterSeconds);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", ex);
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(BulkheadDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    }
+                });
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String pool, String reason) {
+        return Counter.builder("datasource.bulkhead.rejected")
+                .description("Connection requests shed by the database bulkhead")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
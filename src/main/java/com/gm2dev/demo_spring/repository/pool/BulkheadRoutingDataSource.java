@@ -0,0 +1,54 @@
+package com.gm2dev.demo_spring.repository.pool;
+
+import com.gm2dev.demo_spring.limit.BulkheadContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Sends connections of requests running in a bulkhead with its own pool to that pool; everything else,
+// including work outside a request, keeps using the main data source.
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final DataSource mainDataSource;
+    private final Map<String, DataSource> dedicatedPools;
+
+    public BulkheadRoutingDataSource(DataSource mainDataSource, Map<String, DataSource> dedicatedPools) {
+        this.mainDataSource = mainDataSource;
+        this.dedicatedPools = dedicatedPools;
+        setTargetDataSources(Map.copyOf(dedicatedPools));
+        setDefaultTargetDataSource(mainDataSource);
+        afterPropertiesSet();
+    }
+
+    // Bulkheads without a pool of their own have no target and fall back to the main data source
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadContext.current();
+    }
+
+    // Replaces the main data source bean, so its shutdown callback has to close every pool from here
+    @Override
+    public void close() throws Exception {
+        List<Exception> failures = new ArrayList<>();
+        for (DataSource dataSource : dedicatedPools.values()) {
+            closeQuietly(dataSource, failures);
+        }
+        closeQuietly(mainDataSource, failures);
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource, List<Exception> failures) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                failures.add(ex);
+            }
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.gm2dev.demo_spring.repository.product;
 
 import com.gm2dev.demo_spring.entity.product.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     Page<Product> findByCategory(String category, Pageable pageable);
 
@@ -25,8 +29,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.category = :category AND p.stockQuantity > 0")
     Page<Product> findByCategoryAndInStock(@Param("category") String category, Pageable pageable);
 
+    // Served from the query cache until a products write goes through Hibernate (stock-only SQL updates never change categories)
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.category IS NOT NULL ORDER BY p.category")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-categories")
+    })
     List<String> findAllCategories();
 
     Boolean existsByName(String name);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Product p WHERE p.id IN :ids")
+    List<ProductStockView> findStockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.category AS category, p.price AS price, p.imageUrl AS imageUrl FROM Product p WHERE p.id IN :ids")
+    List<ProductSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,19 @@
+package com.gm2dev.demo_spring.repository.product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    // Conditional decrement per product; returns the ids whose stock was insufficient (or that do not exist)
+    List<Long> decreaseStock(Map<Long, Integer> quantitiesByProductId);
+
+    void increaseStock(Map<Long, Integer> quantitiesByProductId);
+
+    // Adds back every item quantity of the given orders in one aggregated statement
+    void restockOrders(Collection<Long> orderIds);
+
+    // Applies stock that was already sold elsewhere; returns the ids whose stock could not cover it (left unchanged)
+    List<Long> consumeStock(Map<Long, Integer> quantitiesByProductId);
+}
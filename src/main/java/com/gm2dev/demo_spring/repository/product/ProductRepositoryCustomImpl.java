@@ -0,0 +1,176 @@
+package com.gm2dev.demo_spring.repository.product;
+
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.repository.DatabasePlatform;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // Stock is never read back into Java: the check and the write happen in one statement,
+    // and the version bump makes concurrent admin edits fail their optimistic lock check
+    private static final String DECREASE_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String INCREASE_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ?";
+
+    private static final String CONSUME_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    // Locks the affected products in id order first, the same order checkout uses, so the
+    // aggregated update below cannot deadlock with concurrent orders
+    private static final String LOCK_ORDER_PRODUCTS_SQL =
+            "SELECT id FROM products WHERE id IN (SELECT product_id FROM order_items WHERE order_id IN (:orderIds)) " +
+            "ORDER BY id FOR UPDATE";
+
+    private static final String POSTGRES_RESTOCK_ORDERS_SQL =
+            "UPDATE products p SET stock_quantity = p.stock_quantity + r.units, version = p.version + 1, updated_at = :now " +
+            "FROM (SELECT product_id, SUM(quantity) AS units FROM order_items WHERE order_id IN (:orderIds) " +
+            "GROUP BY product_id) r WHERE p.id = r.product_id";
+
+    // H2 has no UPDATE ... FROM
+    private static final String MERGE_RESTOCK_ORDERS_SQL =
+            "MERGE INTO products p USING (SELECT product_id, SUM(quantity) AS units FROM order_items " +
+            "WHERE order_id IN (:orderIds) GROUP BY product_id) r ON p.id = r.product_id " +
+            "WHEN MATCHED THEN UPDATE SET stock_quantity = p.stock_quantity + r.units, version = p.version + 1, updated_at = :now";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> decreaseStock(Map<Long, Integer> quantitiesByProductId) {
+        // Pending inserts must reach the database before plain JDBC touches the same rows
+        entityManager.flush();
+
+        // Rows are updated (and therefore locked) in id order so concurrent orders cannot deadlock
+        Map<Long, Integer> lines = new TreeMap<>(quantitiesByProductId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Long> productIds = new ArrayList<>(lines.keySet());
+        List<Object[]> batchArgs = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, now, productId, quantity}));
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(DECREASE_STOCK_SQL, batchArgs);
+        evictFromCache(productIds);
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                rejected.add(productIds.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public void increaseStock(Map<Long, Integer> quantitiesByProductId) {
+        entityManager.flush();
+
+        Map<Long, Integer> lines = new TreeMap<>(quantitiesByProductId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batchArgs = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, now, productId}));
+
+        jdbcTemplate.batchUpdate(INCREASE_STOCK_SQL, batchArgs);
+        evictFromCache(lines.keySet());
+    }
+
+    @Override
+    public void restockOrders(Collection<Long> orderIds) {
+        entityManager.flush();
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("orderIds", orderIds)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        List<Long> productIds = namedParameterJdbcTemplate.queryForList(LOCK_ORDER_PRODUCTS_SQL, params, Long.class);
+        namedParameterJdbcTemplate.update(isPostgres() ? POSTGRES_RESTOCK_ORDERS_SQL : MERGE_RESTOCK_ORDERS_SQL, params);
+        evictFromCache(productIds);
+    }
+
+    @Override
+    public List<Long> consumeStock(Map<Long, Integer> quantitiesByProductId) {
+        entityManager.flush();
+
+        Map<Long, Integer> lines = new TreeMap<>(quantitiesByProductId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Long> productIds = new ArrayList<>(lines.keySet());
+        List<Object[]> batchArgs = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, now, productId, quantity}));
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(CONSUME_STOCK_SQL, batchArgs);
+        evictFromCache(productIds);
+
+        List<Long> shortfalls = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                shortfalls.add(productIds.get(i));
+            }
+        }
+        return shortfalls;
+    }
+
+    // Plain SQL bypasses the second-level cache, so take the same soft lock Hibernate takes for its own
+    // updates: while it is held, and for loads that began before it was released, the region refuses
+    // puts, so a concurrent reader cannot re-cache the pre-update row. Outside a transaction there is
+    // no commit to wait for and the rows are simply evicted.
+    private void evictFromCache(Collection<Long> productIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productIds.forEach(id -> entityManager.getEntityManagerFactory().getCache().evict(Product.class, id));
+            return;
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Product.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+
+        Map<Object, SoftLock> locks = new LinkedHashMap<>();
+        for (Long id : productIds) {
+            Object key = cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+            locks.put(key, cacheAccess.lockItem(session, key, null));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach((key, lock) -> cacheAccess.unlockItem(session, key, lock));
+            }
+        });
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = DatabasePlatform.isPostgres(jdbcTemplate);
+        }
+        return postgres;
+    }
+}
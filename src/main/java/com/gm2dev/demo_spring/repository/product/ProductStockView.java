@@ -0,0 +1,6 @@
+package com.gm2dev.demo_spring.repository.product;
+
+public interface ProductStockView {
+    Long getId();
+    Integer getStockQuantity();
+}
@@ -0,0 +1,11 @@
+package com.gm2dev.demo_spring.repository.product;
+
+import java.math.BigDecimal;
+
+public interface ProductSummaryView {
+    Long getId();
+    String getName();
+    String getCategory();
+    BigDecimal getPrice();
+    String getImageUrl();
+}
@@ -0,0 +1,6 @@
+package com.gm2dev.demo_spring.repository.routing;
+
+public enum DataSourceTarget {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,82 @@
+package com.gm2dev.demo_spring.repository.routing;
+
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Read-only transactions go to the replica; everything else (writes, work outside a transaction) to
+// the primary. Must sit behind a LazyConnectionDataSourceProxy: the decision is taken when the physical
+// connection is fetched, after the transaction's read-only flag is known.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final Counter writeCounter;
+    private final Counter replicaReadCounter;
+    private final Counter stickyReadCounter;
+    private final Counter laggingReadCounter;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWritesTracker,
+                                      MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        this.writeCounter = routingCounter(meterRegistry, "primary", "write");
+        this.replicaReadCounter = routingCounter(meterRegistry, "replica", "read");
+        this.stickyReadCounter = routingCounter(meterRegistry, "primary", "read-your-writes");
+        this.laggingReadCounter = routingCounter(meterRegistry, "primary", "replica-lag");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceTarget.PRIMARY;
+        }
+
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeCounter.increment();
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesTracker.recordWrite(userId);
+                    }
+                });
+            }
+            return DataSourceTarget.PRIMARY;
+        }
+
+        if (userId != null && readYourWritesTracker.isSticky(userId)) {
+            stickyReadCounter.increment();
+            return DataSourceTarget.PRIMARY;
+        }
+        if (!lagMonitor.isAvailable()) {
+            laggingReadCounter.increment();
+            return DataSourceTarget.PRIMARY;
+        }
+        replicaReadCounter.increment();
+        return DataSourceTarget.REPLICA;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getId()
+                : null;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Physical connections handed out by the read/write router")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.gm2dev.demo_spring.repository.routing;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers users who just committed a write so their next reads see it even if the replica lags.
+// Per instance: a user whose follow-up read lands on another instance is covered only by the lag guard.
+public class ReadYourWritesTracker {
+
+    private final long stickyNanos;
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration stickyWindow) {
+        this.stickyNanos = stickyWindow.toNanos();
+    }
+
+    public void recordWrite(Long userId) {
+        stickyUntil.put(userId, System.nanoTime() + stickyNanos);
+    }
+
+    public boolean isSticky(Long userId) {
+        Long until = stickyUntil.get(userId);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.sticky-purge-interval:PT1M}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
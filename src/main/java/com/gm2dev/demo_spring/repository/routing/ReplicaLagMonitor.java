@@ -0,0 +1,68 @@
+package com.gm2dev.demo_spring.repository.routing;
+
+import com.gm2dev.demo_spring.repository.DatabasePlatform;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Polls the replica's replay delay. While it exceeds maxLag, or the replica cannot be reached,
+// read-only transactions are routed to the primary.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Zero when nothing is waiting to be replayed: replay_timestamp alone keeps growing while the primary is idle
+    private static final String POSTGRES_LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private volatile Boolean postgres;
+    private volatile long lagMillis;
+    private volatile boolean available = true;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis / 1000.0)
+                .description("Replay delay of the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:PT1S}")
+    public void check() {
+        boolean wasAvailable = available;
+        try {
+            if (postgres == null) {
+                postgres = DatabasePlatform.isPostgres(replicaJdbcTemplate);
+            }
+            // Other databases (H2 in tests) have no replication to measure
+            Number lag = postgres ? replicaJdbcTemplate.queryForObject(POSTGRES_LAG_SQL, Number.class) : 0;
+            lagMillis = lag == null ? 0 : lag.longValue();
+            available = lagMillis <= maxLag.toMillis();
+        } catch (DataAccessException ex) {
+            log.debug("Replica lag check failed: {}", ex.getMessage());
+            available = false;
+        }
+
+        if (wasAvailable != available) {
+            log.warn(available ? "Read replica back within lag limit ({} ms), routing reads to it"
+                    : "Read replica unavailable or lagging ({} ms), routing reads to the primary", lagMillis);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.gm2dev.demo_spring.repository.sales;
+
+import java.math.BigDecimal;
+
+public interface SalesBucketView {
+    String getBucket();
+    Long getLineCount();
+    Long getUnits();
+    BigDecimal getRevenue();
+}
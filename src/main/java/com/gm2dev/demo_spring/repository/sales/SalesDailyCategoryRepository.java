@@ -0,0 +1,28 @@
+package com.gm2dev.demo_spring.repository.sales;
+
+import com.gm2dev.demo_spring.entity.sales.SalesDailyCategory;
+import com.gm2dev.demo_spring.entity.sales.SalesDailyCategoryId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyCategoryRepository extends JpaRepository<SalesDailyCategory, SalesDailyCategoryId>,
+        SalesDailyCategoryRepositoryCustom {
+
+    // Every sold line has exactly one category, so summing categories per day gives the day's totals
+    @Query("SELECT CAST(s.salesDate AS String) AS bucket, SUM(s.lineCount) AS lineCount, SUM(s.units) AS units, " +
+           "SUM(s.revenue) AS revenue FROM SalesDailyCategory s WHERE s.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.salesDate ORDER BY s.salesDate")
+    List<SalesBucketView> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT s.category AS bucket, SUM(s.lineCount) AS lineCount, SUM(s.units) AS units, " +
+           "SUM(s.revenue) AS revenue FROM SalesDailyCategory s WHERE s.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.category ORDER BY SUM(s.revenue) DESC, s.category")
+    List<SalesBucketView> findTopCategories(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package com.gm2dev.demo_spring.repository.sales;
+
+import com.gm2dev.demo_spring.entity.sales.SalesDailyCategory;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface SalesDailyCategoryRepositoryCustom {
+
+    // Adds each row's counters to the stored row for the same key, creating it if needed
+    void addSales(Collection<SalesDailyCategory> deltas);
+
+    // Replaces a day's rows with totals recomputed from orders
+    void rebuildDay(LocalDate day);
+}
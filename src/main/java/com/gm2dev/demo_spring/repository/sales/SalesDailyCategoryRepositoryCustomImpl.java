@@ -0,0 +1,99 @@
+package com.gm2dev.demo_spring.repository.sales;
+
+import com.gm2dev.demo_spring.entity.sales.SalesDailyCategory;
+import com.gm2dev.demo_spring.repository.DatabasePlatform;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class SalesDailyCategoryRepositoryCustomImpl implements SalesDailyCategoryRepositoryCustom {
+
+    // Incrementing upserts need ON CONFLICT on PostgreSQL, where MERGE is not safe against concurrent
+    // inserts of the same key; H2 only has MERGE
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO sales_daily_category (sales_date, category, shard, line_count, units, revenue) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (sales_date, category, shard) DO UPDATE SET " +
+            "line_count = sales_daily_category.line_count + EXCLUDED.line_count, " +
+            "units = sales_daily_category.units + EXCLUDED.units, " +
+            "revenue = sales_daily_category.revenue + EXCLUDED.revenue";
+
+    private static final String MERGE_SQL =
+            "MERGE INTO sales_daily_category t USING (SELECT CAST(? AS DATE) AS sales_date, CAST(? AS VARCHAR(50)) AS category, " +
+            "CAST(? AS INTEGER) AS shard, CAST(? AS BIGINT) AS line_count, CAST(? AS BIGINT) AS units, CAST(? AS NUMERIC(14, 2)) AS revenue) s " +
+            "ON t.sales_date = s.sales_date AND t.category = s.category AND t.shard = s.shard " +
+            "WHEN MATCHED THEN UPDATE SET line_count = t.line_count + s.line_count, units = t.units + s.units, " +
+            "revenue = t.revenue + s.revenue " +
+            "WHEN NOT MATCHED THEN INSERT (sales_date, category, shard, line_count, units, revenue) " +
+            "VALUES (s.sales_date, s.category, s.shard, s.line_count, s.units, s.revenue)";
+
+    private static final String DELETE_DAY_SQL = "DELETE FROM sales_daily_category WHERE sales_date = ?";
+
+    private static final String REBUILD_DAY_SQL =
+            "INSERT INTO sales_daily_category (sales_date, category, shard, line_count, units, revenue) " +
+            "SELECT CAST(o.created_at AS DATE), COALESCE(p.category, '" + SalesDailyCategory.UNCATEGORIZED + "'), 0, " +
+            "COUNT(*), SUM(oi.quantity), SUM(oi.subtotal) " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.created_at >= ? AND o.created_at < ? AND o.status <> 'CANCELLED' " +
+            "GROUP BY CAST(o.created_at AS DATE), COALESCE(p.category, '" + SalesDailyCategory.UNCATEGORIZED + "')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void addSales(Collection<SalesDailyCategory> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Rows are upserted in key order so concurrent orders touching the same days cannot deadlock
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        deltas.stream()
+                .sorted(Comparator.comparing(SalesDailyCategory::getSalesDate).thenComparing(SalesDailyCategory::getCategory)
+                        .thenComparing(SalesDailyCategory::getShard))
+                .forEach(delta -> batchArgs.add(new Object[]{Date.valueOf(delta.getSalesDate()), delta.getCategory(),
+                        delta.getShard(), delta.getLineCount(), delta.getUnits(), delta.getRevenue()}));
+
+        if (isPostgres()) {
+            List<LocalDate> days = deltas.stream().map(SalesDailyCategory::getSalesDate).toList();
+            SalesDayLock.lockShared(jdbcTemplate, SalesDayLock.CATEGORY_ROLLUP, days);
+            jdbcTemplate.batchUpdate(POSTGRES_UPSERT_SQL, batchArgs);
+        } else {
+            jdbcTemplate.batchUpdate(MERGE_SQL, batchArgs);
+        }
+    }
+
+    @Override
+    public void rebuildDay(LocalDate day) {
+        entityManager.flush();
+
+        // Without it an order committing between the DELETE and the re-read would be counted twice, and one
+        // inserting a fresh key after the DELETE would make the re-insert fail on the primary key
+        if (isPostgres()) {
+            SalesDayLock.lockExclusive(jdbcTemplate, SalesDayLock.CATEGORY_ROLLUP, day);
+        }
+
+        jdbcTemplate.update(DELETE_DAY_SQL, Date.valueOf(day));
+        jdbcTemplate.update(REBUILD_DAY_SQL, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = DatabasePlatform.isPostgres(jdbcTemplate);
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,22 @@
+package com.gm2dev.demo_spring.repository.sales;
+
+import com.gm2dev.demo_spring.entity.sales.SalesDailyProduct;
+import com.gm2dev.demo_spring.entity.sales.SalesDailyProductId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyProductRepository extends JpaRepository<SalesDailyProduct, SalesDailyProductId>,
+        SalesDailyProductRepositoryCustom {
+
+    @Query("SELECT CAST(s.productId AS String) AS bucket, SUM(s.lineCount) AS lineCount, SUM(s.units) AS units, " +
+           "SUM(s.revenue) AS revenue FROM SalesDailyProduct s WHERE s.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.productId ORDER BY SUM(s.revenue) DESC, s.productId")
+    List<SalesBucketView> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package com.gm2dev.demo_spring.repository.sales;
+
+import com.gm2dev.demo_spring.entity.sales.SalesDailyProduct;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface SalesDailyProductRepositoryCustom {
+
+    // Adds each row's counters to the stored row for the same key, creating it if needed
+    void addSales(Collection<SalesDailyProduct> deltas);
+
+    // Replaces a day's rows with totals recomputed from orders
+    void rebuildDay(LocalDate day);
+}
@@ -0,0 +1,31 @@
+package com.gm2dev.demo_spring.repository.sales;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+// Serializes the rebuild of one rollup day against the order transactions writing to it (PostgreSQL only).
+// Writers hold their days in shared mode until commit. The rebuild waits for them, so its re-read sees
+// every order already counted in the rows it deletes, and new writers wait until the rebuilt rows commit.
+final class SalesDayLock {
+
+    static final int PRODUCT_ROLLUP = 1;
+    static final int CATEGORY_ROLLUP = 2;
+
+    private static final String LOCK_SHARED_SQL = "SELECT pg_advisory_xact_lock_shared(?, ?)";
+    private static final String LOCK_EXCLUSIVE_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private SalesDayLock() {
+    }
+
+    // Days are taken in order, so writers spanning several days cannot deadlock with each other
+    static void lockShared(JdbcTemplate jdbcTemplate, int rollup, Collection<LocalDate> days) {
+        days.stream().distinct().sorted().forEach(day ->
+                jdbcTemplate.query(LOCK_SHARED_SQL, rs -> { }, rollup, (int) day.toEpochDay()));
+    }
+
+    static void lockExclusive(JdbcTemplate jdbcTemplate, int rollup, LocalDate day) {
+        jdbcTemplate.query(LOCK_EXCLUSIVE_SQL, rs -> { }, rollup, (int) day.toEpochDay());
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -35,4 +37,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.id = :id")
     Optional<User> findByIdWithRoles(@Param("id") Long id);
-}
\ No newline at end of file
+
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.id IN :ids")
+    List<UserSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+}
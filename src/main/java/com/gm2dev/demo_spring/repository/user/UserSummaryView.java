@@ -0,0 +1,6 @@
+package com.gm2dev.demo_spring.repository.user;
+
+public interface UserSummaryView {
+    Long getId();
+    String getUsername();
+}
@@ -0,0 +1,241 @@
+package com.gm2dev.demo_spring.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.config.IdempotencyProperties;
+import com.gm2dev.demo_spring.entity.idempotency.IdempotencyRecord;
+import com.gm2dev.demo_spring.entity.idempotency.IdempotencyStatus;
+import com.gm2dev.demo_spring.exception.BadRequestException;
+import com.gm2dev.demo_spring.exception.ConflictException;
+import com.gm2dev.demo_spring.repository.idempotency.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs a request at most once per (user, Idempotency-Key). The claim row is committed up front so
+// other instances see the key, while the action and the stored response commit together: a retry
+// either replays the stored response or finds no trace of the first attempt and runs again.
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTransactionTemplate;
+
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> completed;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              IdempotencyProperties properties,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int cacheSize = properties.getCacheSize();
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public IdempotentResponse execute(Long userId, String idempotencyKey, Object request,
+                                      HttpStatus successStatus, Supplier<?> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userId + ":" + idempotencyKey;
+        String requestHash = hash(toJson(request));
+
+        CachedResponse cached = completed.get(cacheKey);
+        if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+            return replay(cached.requestHash(), requestHash, cached.response());
+        }
+
+        // Duplicates arriving on this instance wait for the first execution instead of racing it
+        CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(cacheKey, execution);
+        if (running != null) {
+            return awaitInFlight(running, cacheKey, requestHash);
+        }
+
+        try {
+            IdempotentResponse response = executeOnce(userId, idempotencyKey, requestHash, successStatus, action);
+            execution.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            execution.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(cacheKey, execution);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (completed) {
+            completed.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        }
+    }
+
+    private IdempotentResponse executeOnce(Long userId, String idempotencyKey, String requestHash,
+                                           HttpStatus successStatus, Supplier<?> action) {
+        IdempotencyRecord existing = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                .orElse(null);
+        if (existing != null) {
+            IdempotentResponse stored = resolveExisting(existing, requestHash);
+            if (stored != null) {
+                return stored;
+            }
+        }
+
+        Long claimId = claim(userId, idempotencyKey, requestHash);
+        try {
+            IdempotentResponse response = transactionTemplate.execute(status -> {
+                String body = toJson(action.get());
+
+                IdempotencyRecord record = idempotencyRecordRepository.findById(claimId)
+                        .orElseThrow(() -> new ConflictException("Idempotency-Key claim was lost, retry the request"));
+                record.setStatus(IdempotencyStatus.COMPLETED);
+                record.setResponseStatus(successStatus.value());
+                record.setResponseBody(body);
+                return new IdempotentResponse(successStatus.value(), body, false);
+            });
+
+            completed.put(userId + ":" + idempotencyKey, new CachedResponse(requestHash, response,
+                    LocalDateTime.now().plus(properties.getTtl())));
+            return response;
+        } catch (RuntimeException ex) {
+            // Nothing was committed for the request, so release the key and let the client retry
+            claimTransactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(claimId));
+            throw ex;
+        }
+    }
+
+    // Returns the stored response for a completed key, or null when the record may be replaced
+    private IdempotentResponse resolveExisting(IdempotencyRecord existing, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        if (existing.getExpiresAt().isBefore(now)) {
+            claimTransactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(existing.getId()));
+            return null;
+        }
+
+        if (existing.getStatus() == IdempotencyStatus.COMPLETED) {
+            IdempotentResponse response = new IdempotentResponse(existing.getResponseStatus(), existing.getResponseBody(), false);
+            completed.put(existing.getUserId() + ":" + existing.getIdempotencyKey(),
+                    new CachedResponse(existing.getRequestHash(), response, existing.getExpiresAt()));
+            return replay(existing.getRequestHash(), requestHash, response);
+        }
+
+        if (existing.getCreatedAt().plus(properties.getStaleClaimAfter()).isBefore(now)) {
+            log.warn("Taking over stale idempotency claim {} for user {}", existing.getIdempotencyKey(), existing.getUserId());
+            claimTransactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(existing.getId()));
+            return null;
+        }
+
+        throw new ConflictException("A request with this Idempotency-Key is still being processed");
+    }
+
+    private Long claim(Long userId, String idempotencyKey, String requestHash) {
+        try {
+            return claimTransactionTemplate.execute(status -> idempotencyRecordRepository.saveAndFlush(
+                    IdempotencyRecord.builder()
+                            .userId(userId)
+                            .idempotencyKey(idempotencyKey)
+                            .requestHash(requestHash)
+                            .status(IdempotencyStatus.IN_PROGRESS)
+                            .expiresAt(LocalDateTime.now().plus(properties.getTtl()))
+                            .build()).getId());
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance claimed the same key between our lookup and insert
+            throw new ConflictException("A request with this Idempotency-Key is still being processed", ex);
+        }
+    }
+
+    private IdempotentResponse awaitInFlight(CompletableFuture<IdempotentResponse> running, String cacheKey, String requestHash) {
+        try {
+            running.get(properties.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the original request", ex);
+        } catch (TimeoutException ex) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed", ex);
+        } catch (ExecutionException ex) {
+            // The original attempt failed and released the key; the duplicate reports the same failure
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+
+        CachedResponse cached = completed.get(cacheKey);
+        if (cached == null) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        return replay(cached.requestHash(), requestHash, cached.response());
+    }
+
+    private IdempotentResponse replay(String storedHash, String requestHash, IdempotentResponse response) {
+        if (!storedHash.equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used with a different request body");
+        }
+        return new IdempotentResponse(response.status(), response.body(), true);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize idempotent request or response", ex);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private record CachedResponse(String requestHash, IdempotentResponse response, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.gm2dev.demo_spring.service.idempotency;
+
+public record IdempotentResponse(int status, String body, boolean replayed) {
+}
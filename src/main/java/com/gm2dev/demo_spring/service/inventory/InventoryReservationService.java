@@ -0,0 +1,391 @@
+package com.gm2dev.demo_spring.service.inventory;
+
+import com.gm2dev.demo_spring.config.InventoryReservationProperties;
+import com.gm2dev.demo_spring.entity.inventory.InventoryJournalEntry;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.repository.inventory.InventoryJournalRepository;
+import com.gm2dev.demo_spring.repository.inventory.PendingStockView;
+import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import com.gm2dev.demo_spring.repository.product.ProductStockView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Serves checkout stock for configured hot SKUs from memory. A granted reservation is journaled in the
+// order transaction; committed journal rows are drained into products.stock_quantity by the flusher, so
+// the products row is written once per batch instead of once per order.
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.inventory.reservation", name = "enabled", havingValue = "true")
+public class InventoryReservationService {
+
+    private final InventoryReservationProperties properties;
+    private final InventoryJournalRepository journalRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+
+    // Flushing and reconciling both read the journal and stock; they must not interleave
+    private final ReentrantLock writeBehindLock = new ReentrantLock();
+
+    // Grants, releases and post-commit removals share the read side; reconciliation takes the write side,
+    // so counters and open reservations stand still while it compares them with the database. A reservation
+    // leaves the map only after its journal row has committed, so its units are always in one of the two.
+    private final ReentrantReadWriteLock reservationLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong pendingUnits = new AtomicLong();
+    private final AtomicLong writeBehindLagMillis = new AtomicLong();
+
+    private final Counter grantedCounter;
+    private final Counter rejectedCounter;
+    private final Counter releasedCounter;
+    private final Counter expiredCounter;
+    private final Counter driftCounter;
+    private final Counter shortfallCounter;
+
+    public InventoryReservationService(InventoryReservationProperties properties,
+                                       InventoryJournalRepository journalRepository,
+                                       ProductRepository productRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.journalRepository = journalRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+
+        this.grantedCounter = reservationCounter("granted");
+        this.rejectedCounter = reservationCounter("rejected");
+        this.releasedCounter = reservationCounter("released");
+        this.expiredCounter = reservationCounter("expired");
+        this.driftCounter = Counter.builder("inventory.reservation.drift")
+                .description("Units corrected by reconciliation against stock_quantity")
+                .register(meterRegistry);
+        this.shortfallCounter = Counter.builder("inventory.writebehind.shortfall")
+                .description("Journaled units that stock_quantity could not cover when flushed")
+                .register(meterRegistry);
+
+        Gauge.builder("inventory.writebehind.pending.units", pendingUnits, AtomicLong::get)
+                .description("Units sold from memory but not yet applied to stock_quantity")
+                .register(meterRegistry);
+        Gauge.builder("inventory.writebehind.lag", writeBehindLagMillis, lag -> lag.get() / 1000.0)
+                .description("Age in seconds of the oldest journal entry not yet flushed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writeBehindLock.lock();
+        try {
+            // Journal rows left by a previous run are committed sales that never reached stock_quantity
+            while (flushBatch() > 0) {
+                // drain until empty
+            }
+
+            List<ProductStockView> hotStock = properties.getHotProductIds().isEmpty()
+                    ? List.of()
+                    : productRepository.findStockByIdIn(properties.getHotProductIds());
+            for (ProductStockView stock : hotStock) {
+                StockCounter counter = new StockCounter(properties.getShards(), stock.getStockQuantity());
+                counters.put(stock.getId(), counter);
+                Gauge.builder("inventory.reservation.available", counter, StockCounter::available)
+                        .description("Units currently grantable from memory")
+                        .tag("productId", stock.getId().toString())
+                        .register(meterRegistry);
+            }
+            updateWriteBehindGauges();
+        } finally {
+            writeBehindLock.unlock();
+        }
+
+        log.info("Inventory reservation engine managing {} hot products: {}", counters.size(), counters.keySet());
+    }
+
+    public boolean isManaged(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    // Reserves the hot lines in memory and journals them in the caller's transaction.
+    // Returns the remaining lines, which still go through the regular database decrement.
+    public Map<Long, Integer> reserveForCheckout(Map<Long, Integer> quantities, Map<Long, Product> products) {
+        Map<Long, Integer> databaseLines = new LinkedHashMap<>();
+        List<Reservation> granted = new ArrayList<>();
+        Instant expiresAt = Instant.now().plus(properties.getReservationTtl());
+
+        Lock lock = reservationLock.readLock();
+        lock.lock();
+        try {
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                StockCounter counter = counters.get(line.getKey());
+                if (counter == null) {
+                    databaseLines.put(line.getKey(), line.getValue());
+                    continue;
+                }
+
+                if (!counter.tryAcquire(line.getValue())) {
+                    rejectedCounter.increment();
+                    granted.forEach(this::release);
+                    throw new IllegalArgumentException("Insufficient stock for product: " + products.get(line.getKey()).getName());
+                }
+
+                Reservation reservation = new Reservation(UUID.randomUUID(), line.getKey(), line.getValue(), expiresAt,
+                        new AtomicReference<>(ReservationState.HELD));
+                reservations.put(reservation.id(), reservation);
+                grantedCounter.increment();
+                granted.add(reservation);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!granted.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // An expired reservation's units may already be sold again; the order must not commit on them
+                    for (Reservation reservation : granted) {
+                        if (!reservation.state().compareAndSet(ReservationState.HELD, ReservationState.COMMITTING)) {
+                            throw new IllegalStateException("Stock reservation expired before the order was placed, please retry");
+                        }
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        // Consumed: the journal row now carries the decrement until the next flush
+                        Lock lock = reservationLock.readLock();
+                        lock.lock();
+                        try {
+                            granted.forEach(reservation -> reservations.remove(reservation.id()));
+                        } finally {
+                            lock.unlock();
+                        }
+                    } else {
+                        granted.forEach(InventoryReservationService.this::release);
+                    }
+                }
+            });
+
+            journalRepository.saveAll(granted.stream()
+                    .map(reservation -> InventoryJournalEntry.builder()
+                            .productId(reservation.productId())
+                            .quantity(reservation.quantity())
+                            .build())
+                    .toList());
+        }
+
+        return databaseLines;
+    }
+
+    // Returns reservations whose transaction never finished, e.g. a request thread stuck past the TTL.
+    // Expiry and commit race on the reservation's state: a transaction that finds its reservation expired
+    // rolls back in beforeCommit, and a reservation already committing is left to its transaction.
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.expiry-interval:PT1S}")
+    public void expireReservations() {
+        Instant now = Instant.now();
+        Lock lock = reservationLock.readLock();
+        lock.lock();
+        try {
+            for (Reservation reservation : reservations.values()) {
+                if (reservation.expiresAt().isBefore(now)
+                        && reservation.state().compareAndSet(ReservationState.HELD, ReservationState.EXPIRED)
+                        && reservations.remove(reservation.id()) != null) {
+                    counters.get(reservation.productId()).release(reservation.quantity());
+                    expiredCounter.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.flush-interval:PT0.5S}")
+    public void flush() {
+        writeBehindLock.lock();
+        try {
+            int flushed = flushBatch();
+            if (flushed > 0) {
+                log.debug("Flushed {} inventory journal entries", flushed);
+            }
+            updateWriteBehindGauges();
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    // Recomputes what memory may still grant: stock_quantity minus unflushed journal minus open reservations.
+    // Picks up admin stock edits and cancellations. The snapshot is taken with grants and commits held
+    // (and the flusher excluded), so a reservation is counted at least once: a reservation that commits
+    // during the snapshot may be counted twice, which only under-grants until the next run.
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.reconcile-interval:PT30S}",
+            initialDelayString = "${app.inventory.reservation.reconcile-interval:PT30S}")
+    public void reconcile() {
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        writeBehindLock.lock();
+        try {
+            retryShortfalls();
+
+            Lock lock = reservationLock.writeLock();
+            lock.lock();
+            try {
+                reconcileCounters();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    private void reconcileCounters() {
+        Map<Long, Long> pending = new HashMap<>();
+        for (PendingStockView view : journalRepository.sumPendingByProduct()) {
+            pending.put(view.getProductId(), view.getQuantity());
+        }
+
+        Map<Long, Long> held = new HashMap<>();
+        for (Reservation reservation : reservations.values()) {
+            held.merge(reservation.productId(), (long) reservation.quantity(), Long::sum);
+        }
+
+        for (ProductStockView stock : productRepository.findStockByIdIn(counters.keySet())) {
+            StockCounter counter = counters.get(stock.getId());
+            long target = stock.getStockQuantity()
+                    - pending.getOrDefault(stock.getId(), 0L)
+                    - held.getOrDefault(stock.getId(), 0L);
+            int drift = (int) (Math.max(target, 0) - counter.available());
+            if (drift != 0) {
+                counter.add(drift);
+                driftCounter.increment(Math.abs(drift));
+                log.info("Reconciled hot product {} by {} units", stock.getId(), drift);
+            }
+        }
+    }
+
+    private int flushBatch() {
+        Integer flushed = transactionTemplate.execute(status -> {
+            List<InventoryJournalEntry> entries =
+                    journalRepository.findByShortfallFalseOrderByIdAsc(Limit.of(properties.getFlushBatchSize()));
+            apply(entries);
+            return entries.size();
+        });
+        return flushed == null ? 0 : flushed;
+    }
+
+    // Rows flagged by an earlier flush go through again, in case stock has since been raised
+    private void retryShortfalls() {
+        Integer applied = transactionTemplate.execute(status ->
+                apply(journalRepository.findByShortfallTrueOrderByIdAsc(Limit.of(properties.getFlushBatchSize()))));
+        if (applied != null && applied > 0) {
+            log.info("Applied {} inventory journal entries after an earlier stock shortfall", applied);
+        }
+    }
+
+    // Applies and deletes the entries in one transaction, so a crash leaves either both or neither.
+    // Products whose stock cannot cover their entries keep them, flagged: the units stay pending, so
+    // memory does not grant them again, and the oversell is visible instead of being clamped away.
+    private int apply(List<InventoryJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (InventoryJournalEntry entry : entries) {
+            deltas.merge(entry.getProductId(), entry.getQuantity(), Integer::sum);
+        }
+
+        List<Long> shortProducts = productRepository.consumeStock(deltas);
+        List<Long> applied = new ArrayList<>(entries.size());
+        for (InventoryJournalEntry entry : entries) {
+            if (!shortProducts.contains(entry.getProductId())) {
+                applied.add(entry.getId());
+            } else if (!entry.isShortfall()) {
+                entry.setShortfall(true);
+                shortfallCounter.increment(entry.getQuantity());
+            }
+        }
+        for (Long productId : shortProducts) {
+            log.error("Stock of product {} cannot cover {} journaled units; entries kept and flagged as shortfall",
+                    productId, deltas.get(productId));
+        }
+
+        journalRepository.deleteAllByIdInBatch(applied);
+        return applied.size();
+    }
+
+    private void updateWriteBehindGauges() {
+        long units = 0;
+        for (PendingStockView view : journalRepository.sumPendingByProduct()) {
+            units += view.getQuantity();
+        }
+        pendingUnits.set(units);
+
+        LocalDateTime oldest = journalRepository.findOldestCreatedAt();
+        writeBehindLagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+
+    private void release(Reservation reservation) {
+        Lock lock = reservationLock.readLock();
+        lock.lock();
+        try {
+            if (reservations.remove(reservation.id()) != null) {
+                counters.get(reservation.productId()).release(reservation.quantity());
+                releasedCounter.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Counter reservationCounter(String outcome) {
+        return Counter.builder("inventory.reservations")
+                .description("In-memory stock reservations by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private enum ReservationState {
+        HELD,
+        COMMITTING,
+        EXPIRED
+    }
+
+    private record Reservation(UUID id, Long productId, int quantity, Instant expiresAt,
+                               AtomicReference<ReservationState> state) {
+    }
+}
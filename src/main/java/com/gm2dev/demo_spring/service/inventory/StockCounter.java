@@ -0,0 +1,104 @@
+package com.gm2dev.demo_spring.service.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Available units for one product split across independent shards, so concurrent
+// checkouts CAS on different cells instead of all contending on a single value
+class StockCounter {
+
+    private final AtomicInteger[] shards;
+
+    StockCounter(int shardCount, int initialQuantity) {
+        shards = new AtomicInteger[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new AtomicInteger();
+        }
+        add(initialQuantity);
+    }
+
+    boolean tryAcquire(int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+
+        // Fast path: one shard covers the whole request
+        for (int i = 0; i < shards.length; i++) {
+            AtomicInteger shard = shards[(start + i) % shards.length];
+            int available = shard.get();
+            while (available >= quantity) {
+                if (shard.compareAndSet(available, available - quantity)) {
+                    return true;
+                }
+                available = shard.get();
+            }
+        }
+
+        // Slow path: stock is fragmented, collect it from several shards and give it back if short
+        int[] taken = new int[shards.length];
+        int remaining = quantity;
+        for (int i = 0; i < shards.length && remaining > 0; i++) {
+            int index = (start + i) % shards.length;
+            AtomicInteger shard = shards[index];
+            int available = shard.get();
+            while (available > 0) {
+                int take = Math.min(available, remaining);
+                if (shard.compareAndSet(available, available - take)) {
+                    taken[index] = take;
+                    remaining -= take;
+                    break;
+                }
+                available = shard.get();
+            }
+        }
+
+        if (remaining > 0) {
+            for (int i = 0; i < shards.length; i++) {
+                if (taken[i] > 0) {
+                    shards[i].addAndGet(taken[i]);
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    void release(int quantity) {
+        shards[ThreadLocalRandom.current().nextInt(shards.length)].addAndGet(quantity);
+    }
+
+    // Spreads a positive amount evenly; negative corrections are drained shard by shard
+    void add(int delta) {
+        if (delta >= 0) {
+            int share = delta / shards.length;
+            int extra = delta % shards.length;
+            for (int i = 0; i < shards.length; i++) {
+                shards[i].addAndGet(share + (i < extra ? 1 : 0));
+            }
+            return;
+        }
+
+        int remaining = -delta;
+        for (AtomicInteger shard : shards) {
+            int available = shard.get();
+            while (available > 0 && remaining > 0) {
+                int take = Math.min(available, remaining);
+                if (shard.compareAndSet(available, available - take)) {
+                    remaining -= take;
+                    break;
+                }
+                available = shard.get();
+            }
+        }
+        if (remaining > 0) {
+            // Already sold past the target; the debt is paid back by later releases
+            shards[0].addAndGet(-remaining);
+        }
+    }
+
+    int available() {
+        int total = 0;
+        for (AtomicInteger shard : shards) {
+            total += shard.get();
+        }
+        return total;
+    }
+}
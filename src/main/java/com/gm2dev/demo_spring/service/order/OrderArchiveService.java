@@ -0,0 +1,97 @@
+package com.gm2dev.demo_spring.service.order;
+
+import com.gm2dev.demo_spring.config.OrderArchiveProperties;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps the active order partitions small: closed orders past the configured age are flagged archived,
+// which on PostgreSQL moves them to the archive partitions that list queries skip unless asked.
+// Also creates upcoming monthly partitions so new orders never fall into the default partition, and
+// checks the invariants the partitioned schema no longer enforces across partitions (see V17).
+@Slf4j
+@Service
+public class OrderArchiveService {
+
+    private final OrderRepository orderRepository;
+    private final OrderArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final AtomicLong duplicateIds = new AtomicLong();
+    private final AtomicLong orphanItems = new AtomicLong();
+
+    public OrderArchiveService(OrderRepository orderRepository,
+                               OrderArchiveProperties properties,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("orders.archived")
+                .description("Closed orders moved to the archive partitions")
+                .register(meterRegistry);
+        Gauge.builder("orders.integrity.duplicate.ids", duplicateIds, AtomicLong::get)
+                .description("Order ids present in more than one row at the last integrity check")
+                .register(meterRegistry);
+        Gauge.builder("orders.integrity.orphan.items", orphanItems, AtomicLong::get)
+                .description("Order items whose order did not exist at the last integrity check")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.orders.archive.partition-cron:0 15 1 * * *}")
+    public void createUpcomingPartitions() {
+        transactionTemplate.executeWithoutResult(status ->
+                orderRepository.createPartitions(LocalDate.now(), properties.getPartitionMonthsAhead()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.archive.interval:PT10M}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int archived = archiveClosedOrders(LocalDateTime.now().minus(properties.getClosedAge()));
+        if (archived > 0) {
+            log.info("Archived {} closed orders", archived);
+        }
+    }
+
+    // Each batch commits on its own so row moves never hold locks on more than batchSize orders
+    public int archiveClosedOrders(LocalDateTime closedBefore) {
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer archived = transactionTemplate.execute(status ->
+                    orderRepository.archiveClosedOrders(closedBefore, properties.getBatchSize()));
+            int count = archived == null ? 0 : archived;
+            total += count;
+            archivedCounter.increment(count);
+            if (count < properties.getBatchSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // Scans orders and order_items in full, so it runs off-peak rather than per request
+    @Scheduled(cron = "${app.orders.archive.integrity-cron:0 45 1 * * *}")
+    public void checkIntegrity() {
+        duplicateIds.set(orderRepository.countDuplicateOrderIds());
+        orphanItems.set(orderRepository.countOrphanOrderItems());
+        if (duplicateIds.get() > 0 || orphanItems.get() > 0) {
+            log.error("Order integrity check failed: {} duplicated order ids, {} orphaned order items; "
+                    + "order ids must only come from orders_id_seq", duplicateIds.get(), orphanItems.get());
+        }
+    }
+}
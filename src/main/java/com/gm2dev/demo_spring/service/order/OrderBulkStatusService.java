@@ -0,0 +1,157 @@
+package com.gm2dev.demo_spring.service.order;
+
+import com.gm2dev.demo_spring.config.OrderBulkStatusProperties;
+import com.gm2dev.demo_spring.dto.order.BulkOrderStatusRequest;
+import com.gm2dev.demo_spring.dto.order.BulkOrderStatusResponse;
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.exception.BadRequestException;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import com.gm2dev.demo_spring.repository.order.OrderStatusView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Moves many orders to one status without loading their graphs. Each chunk reads (id, user, status),
+// checks the OrderStatus state machine and issues one guarded UPDATE per current status, in its own
+// transaction so a large request never holds row locks for its whole duration.
+@Slf4j
+@Service
+public class OrderBulkStatusService {
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusEvents orderStatusEvents;
+    private final OrderBulkStatusProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderBulkStatusService(OrderRepository orderRepository,
+                                  OrderStatusEvents orderStatusEvents,
+                                  OrderBulkStatusProperties properties,
+                                  PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderStatusEvents = orderStatusEvents;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkOrderStatusResponse updateStatuses(BulkOrderStatusRequest request) {
+        OrderStatus target = request.getStatus();
+        if (target == OrderStatus.CANCELLED) {
+            // Cancelling restores stock item by item, which is exactly the graph this path avoids
+            throw new BadRequestException("Orders cannot be cancelled in bulk");
+        }
+
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new BadRequestException("Provide either orderIds or filter");
+        }
+
+        BulkResult result = new BulkResult();
+        int chunkSize = properties.getChunkSize();
+        if (byIds) {
+            List<Long> ids = request.getOrderIds().stream().filter(Objects::nonNull).distinct().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                applyChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())), target, result);
+            }
+        } else {
+            BulkOrderStatusRequest.Filter filter = request.getFilter();
+            if (!filter.getStatus().canTransitionTo(target)) {
+                throw new BadRequestException("Cannot change order status from " + filter.getStatus() + " to " + target);
+            }
+
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = orderRepository.findIdsByStatusCreatedBetween(filter.getStatus(), filter.getCreatedFrom(),
+                        filter.getCreatedTo(), afterId, PageRequest.ofSize(chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                applyChunk(ids, target, result);
+                afterId = ids.get(ids.size() - 1);
+            }
+        }
+
+        log.info("Bulk status change to {}: {} matched, {} updated, {} unchanged, {} rejected",
+                target, result.matched, result.updated, result.unchanged, result.rejected.size());
+        return BulkOrderStatusResponse.builder()
+                .status(target)
+                .matched(result.matched)
+                .updated(result.updated)
+                .unchanged(result.unchanged)
+                .rejected(result.rejected)
+                .build();
+    }
+
+    private void applyChunk(List<Long> ids, OrderStatus target, BulkResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, OrderStatusView> found = new HashMap<>();
+            orderRepository.findStatusViewsByIdIn(ids).forEach(view -> found.put(view.getId(), view));
+            result.matched += found.size();
+
+            Map<OrderStatus, List<OrderStatusView>> eligible = new EnumMap<>(OrderStatus.class);
+            for (Long id : ids) {
+                OrderStatusView view = found.get(id);
+                if (view == null) {
+                    result.reject(id, null, "Order not found");
+                } else if (view.getStatus() == target) {
+                    result.unchanged++;
+                } else if (!view.getStatus().canTransitionTo(target)) {
+                    result.reject(id, view.getStatus(), "Cannot change order status from " + view.getStatus() + " to " + target);
+                } else {
+                    eligible.computeIfAbsent(view.getStatus(), current -> new ArrayList<>()).add(view);
+                }
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            eligible.forEach((current, views) -> {
+                List<Long> groupIds = views.stream().map(OrderStatusView::getId).toList();
+                // Only rows this UPDATE changed get an event; the others were moved by a concurrent writer
+                Set<Long> changed = new HashSet<>(orderRepository.updateStatus(groupIds, current, target, now));
+                List<Long> lost = new ArrayList<>();
+                for (OrderStatusView view : views) {
+                    if (changed.contains(view.getId())) {
+                        recordStatusChanged(view, target);
+                        result.updated++;
+                    } else {
+                        lost.add(view.getId());
+                    }
+                }
+                if (lost.isEmpty()) {
+                    return;
+                }
+
+                Map<Long, OrderStatus> latest = new HashMap<>();
+                orderRepository.findStatusViewsByIdIn(lost).forEach(view -> latest.put(view.getId(), view.getStatus()));
+                lost.forEach(id -> result.reject(id, latest.get(id), "Order status changed concurrently"));
+            });
+        });
+    }
+
+    private void recordStatusChanged(OrderStatusView view, OrderStatus target) {
+        orderStatusEvents.statusChanged(view.getId(), view.getUserId(), view.getStatus(), target);
+    }
+
+    private static class BulkResult {
+        private int matched;
+        private int updated;
+        private int unchanged;
+        private final List<BulkOrderStatusResponse.Rejection> rejected = new ArrayList<>();
+
+        private void reject(Long orderId, OrderStatus currentStatus, String reason) {
+            rejected.add(new BulkOrderStatusResponse.Rejection(orderId, currentStatus, reason));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.gm2dev.demo_spring.service.order;
+
+import java.util.Map;
+
+// A validated order request with its lines already merged per product
+public record OrderCommand(Long userId, String shippingAddress, Map<Long, Integer> quantities) {
+}
@@ -0,0 +1,11 @@
+package com.gm2dev.demo_spring.service.order;
+
+import com.gm2dev.demo_spring.repository.order.OrderItemView;
+import com.gm2dev.demo_spring.repository.product.ProductSummaryView;
+import com.gm2dev.demo_spring.repository.user.UserSummaryView;
+
+import java.util.List;
+
+// Items for a page of order summaries plus each referenced product and user exactly once
+public record OrderExpansion(List<OrderItemView> items, List<ProductSummaryView> products, List<UserSummaryView> users) {
+}
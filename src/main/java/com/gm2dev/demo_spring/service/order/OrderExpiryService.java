@@ -0,0 +1,127 @@
+package com.gm2dev.demo_spring.service.order;
+
+import com.gm2dev.demo_spring.config.OrderExpiryProperties;
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.repository.order.OrderLineSalesView;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import com.gm2dev.demo_spring.repository.order.StalePendingOrder;
+import com.gm2dev.demo_spring.service.product.ProductService;
+import com.gm2dev.demo_spring.service.sales.SalesRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cancels PENDING orders nobody confirmed within the TTL and puts their stock back.
+// Each batch claims its orders with FOR UPDATE SKIP LOCKED, so several instances sweep disjoint sets.
+// OrderService locks the same row before confirming or cancelling: an order being changed right now is
+// skipped, and a change that arrives while the sweeper holds the row waits and then sees CANCELLED.
+// Stock is returned with one aggregated UPDATE per batch instead of one round trip per order line.
+@Slf4j
+@Service
+public class OrderExpiryService {
+
+    private final OrderRepository orderRepository;
+    private final ProductService productService;
+    private final SalesRollupService salesRollupService;
+    private final OrderStatusEvents orderStatusEvents;
+    private final OrderExpiryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter expiredCounter;
+    private final Counter reclaimedUnitsCounter;
+
+    public OrderExpiryService(OrderRepository orderRepository,
+                              ProductService productService,
+                              SalesRollupService salesRollupService,
+                              OrderStatusEvents orderStatusEvents,
+                              OrderExpiryProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.productService = productService;
+        this.salesRollupService = salesRollupService;
+        this.orderStatusEvents = orderStatusEvents;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.expiredCounter = Counter.builder("orders.expired")
+                .description("PENDING orders cancelled by the expiry sweeper")
+                .register(meterRegistry);
+        this.reclaimedUnitsCounter = Counter.builder("orders.expired.units.reclaimed")
+                .description("Stock units returned by expired orders")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.interval:PT1M}")
+    public void sweep() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int expired = expirePendingOrders(LocalDateTime.now().minus(properties.getPendingTtl()));
+            if (expired > 0) {
+                log.info("Expired {} stale PENDING orders", expired);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Order expiry sweep failed, will retry", ex);
+        }
+    }
+
+    public int expirePendingOrders(LocalDateTime createdBefore) {
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            BatchResult result = transactionTemplate.execute(status -> expireBatch(createdBefore));
+            if (result == null) {
+                break;
+            }
+            total += result.orders();
+            expiredCounter.increment(result.orders());
+            reclaimedUnitsCounter.increment(result.units());
+            if (result.orders() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private BatchResult expireBatch(LocalDateTime createdBefore) {
+        List<StalePendingOrder> stale = orderRepository.lockStalePendingOrders(createdBefore, properties.getBatchSize());
+        if (stale.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<Long> orderIds = stale.stream().map(StalePendingOrder::id).toList();
+        List<OrderLineSalesView> lines = orderRepository.findSalesLinesByOrderIdIn(orderIds);
+        Map<Long, Integer> unitsByProduct = new HashMap<>();
+        long units = 0;
+        for (OrderLineSalesView line : lines) {
+            unitsByProduct.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            units += line.getQuantity();
+        }
+
+        // The rows are locked, so every claimed order is still PENDING; anything else means the claim was
+        // lost and restocking would return units a second time
+        int cancelled = orderRepository.cancelPendingOrders(orderIds);
+        if (cancelled != orderIds.size()) {
+            throw new IllegalStateException("Expected to cancel " + orderIds.size() + " claimed orders but cancelled " + cancelled);
+        }
+        productService.restockOrders(orderIds, unitsByProduct);
+        salesRollupService.recordLinesCancelled(lines);
+        for (StalePendingOrder order : stale) {
+            orderStatusEvents.statusChanged(order.id(), order.userId(), OrderStatus.PENDING, OrderStatus.CANCELLED);
+        }
+        return new BatchResult(stale.size(), units);
+    }
+
+    private record BatchResult(int orders, long units) {
+    }
+}
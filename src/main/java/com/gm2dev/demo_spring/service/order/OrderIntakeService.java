@@ -0,0 +1,242 @@
+package com.gm2dev.demo_spring.service.order;
+
+import com.gm2dev.demo_spring.config.OrderIntakeProperties;
+import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
+import com.gm2dev.demo_spring.dto.order.OrderIntakeResponse;
+import com.gm2dev.demo_spring.dto.order.OrderIntakeResponse.IntakeStatus;
+import com.gm2dev.demo_spring.entity.order.Order;
+import com.gm2dev.demo_spring.exception.ResourceNotFoundException;
+import com.gm2dev.demo_spring.exception.ServiceOverloadedException;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Accepts orders into a bounded queue and lets a few workers commit them in micro-batches,
+// so request threads and pool connections are not held for the whole order transaction.
+// Queued orders live in memory: a crash loses what was accepted but not yet committed. A clean shutdown
+// stops accepting, lets the workers drain the queue for up to shutdown-timeout and fails whatever is left.
+@Slf4j
+@Service
+public class OrderIntakeService {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final String SHUTDOWN_MESSAGE = "Order intake stopped before the order was placed, please resubmit";
+
+    private final OrderService orderService;
+    private final OrderIntakeProperties properties;
+
+    private final BlockingQueue<QueuedOrder> queue;
+    private final Map<UUID, IntakeEntry> results = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Counter acceptedCounter;
+    private final Counter overloadedCounter;
+    private final Counter fallbackCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    public OrderIntakeService(OrderService orderService, OrderIntakeProperties properties, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.acceptedCounter = Counter.builder("orders.intake.submissions").tag("outcome", "accepted").register(meterRegistry);
+        this.overloadedCounter = Counter.builder("orders.intake.submissions").tag("outcome", "overloaded").register(meterRegistry);
+        this.fallbackCounter = Counter.builder("orders.intake.batch.fallbacks")
+                .description("Batches that were retried order by order after a rejected line")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("orders.intake.batch.size")
+                .description("Orders committed per group-commit transaction")
+                .register(meterRegistry);
+        Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startWorkers() {
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            Thread worker = new Thread(this::drainLoop, "order-intake-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        running = false;
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        try {
+            for (Thread worker : workers) {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        workers.stream().filter(Thread::isAlive).forEach(Thread::interrupt);
+
+        List<QueuedOrder> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        if (!leftovers.isEmpty()) {
+            log.warn("Order intake stopped with {} orders still queued, marking them failed", leftovers.size());
+            leftovers.forEach(queued -> fail(queued, SHUTDOWN_MESSAGE));
+        }
+    }
+
+    public OrderIntakeResponse submit(UserPrincipal currentUser, CreateOrderRequest request) {
+        if (!running) {
+            throw shuttingDown();
+        }
+        OrderCommand command = new OrderCommand(currentUser.getId(), request.getShippingAddress(),
+                OrderService.mergeOrderLines(request.getOrderItems()));
+
+        OrderIntakeResponse accepted = OrderIntakeResponse.builder()
+                .reference(UUID.randomUUID())
+                .status(IntakeStatus.QUEUED)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        results.put(accepted.getReference(), new IntakeEntry(currentUser.getId(), accepted));
+
+        QueuedOrder queued = new QueuedOrder(accepted.getReference(), command);
+        if (!queue.offer(queued)) {
+            results.remove(accepted.getReference());
+            overloadedCounter.increment();
+            throw new ServiceOverloadedException("Order intake queue is full, retry later", properties.getRetryAfterSeconds());
+        }
+        // Raced with stopWorkers: take the order back unless a worker or the shutdown sweep already has it
+        if (!running && queue.remove(queued)) {
+            results.remove(accepted.getReference());
+            throw shuttingDown();
+        }
+
+        acceptedCounter.increment();
+        return accepted;
+    }
+
+    public OrderIntakeResponse getStatus(UUID reference, UserPrincipal currentUser) {
+        IntakeEntry entry = results.get(reference);
+        if (entry == null || !entry.userId().equals(currentUser.getId())) {
+            throw new ResourceNotFoundException("Order intake", "reference", reference);
+        }
+        return entry.response();
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.intake.cleanup-interval:PT1M}")
+    public void evictFinishedResults() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getResultTtl());
+        results.values().removeIf(entry -> entry.response().getCompletedAt() != null
+                && entry.response().getCompletedAt().isBefore(cutoff));
+    }
+
+    // Keeps running after stop until the queue is empty, so accepted orders are committed rather than dropped
+    private void drainLoop() {
+        List<QueuedOrder> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedOrder first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Linger briefly so a burst is committed together instead of one order per transaction
+                long deadline = System.nanoTime() + properties.getBatchLinger().toNanos();
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getMaxBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    QueuedOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException ex) {
+                // Shutdown stopped waiting: a batch still being collected is never placed
+                Thread.currentThread().interrupt();
+                batch.forEach(queued -> fail(queued, SHUTDOWN_MESSAGE));
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Order intake worker failed on a batch of {}", batch.size(), ex);
+                batch.forEach(queued -> fail(queued, "Unexpected error while placing the order"));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<QueuedOrder> batch) {
+        try {
+            List<Order> orders = orderService.createOrders(batch.stream().map(QueuedOrder::command).toList());
+            batchSizeSummary.record(orders.size());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), orders.get(i).getId());
+            }
+            return;
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), ex.getMessage());
+                return;
+            }
+            log.debug("Group commit of {} orders rejected ({}), retrying individually", batch.size(), ex.getMessage());
+        }
+
+        // One bad order (missing product, short stock) must not fail its neighbours
+        fallbackCounter.increment();
+        for (QueuedOrder queued : batch) {
+            try {
+                Order order = orderService.createOrders(List.of(queued.command())).get(0);
+                batchSizeSummary.record(1);
+                complete(queued, order.getId());
+            } catch (RuntimeException ex) {
+                fail(queued, ex.getMessage());
+            }
+        }
+    }
+
+    private ServiceOverloadedException shuttingDown() {
+        return new ServiceOverloadedException("Order intake is shutting down, retry later", properties.getRetryAfterSeconds());
+    }
+
+    private void complete(QueuedOrder queued, Long orderId) {
+        results.computeIfPresent(queued.reference(), (reference, entry) -> new IntakeEntry(entry.userId(),
+                entry.response().toBuilder()
+                        .status(IntakeStatus.COMPLETED)
+                        .orderId(orderId)
+                        .completedAt(LocalDateTime.now())
+                        .build()));
+    }
+
+    private void fail(QueuedOrder queued, String message) {
+        results.computeIfPresent(queued.reference(), (reference, entry) -> new IntakeEntry(entry.userId(),
+                entry.response().toBuilder()
+                        .status(IntakeStatus.FAILED)
+                        .message(message)
+                        .completedAt(LocalDateTime.now())
+                        .build()));
+    }
+
+    private record QueuedOrder(UUID reference, OrderCommand command) {
+    }
+
+    private record IntakeEntry(Long userId, OrderIntakeResponse response) {
+    }
+}
@@ -4,15 +4,22 @@ import com.gm2dev.demo_spring.entity.order.Order;
 import com.gm2dev.demo_spring.entity.order.OrderItem;
 import com.gm2dev.demo_spring.entity.order.OrderStatus;
 import com.gm2dev.demo_spring.entity.product.Product;
-import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.event.OrderCreatedEvent;
 import com.gm2dev.demo_spring.exception.ResourceNotFoundException;
+import com.gm2dev.demo_spring.repository.order.OrderItemView;
 import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import com.gm2dev.demo_spring.repository.order.OrderSummaryView;
 import com.gm2dev.demo_spring.security.UserPrincipal;
+import com.gm2dev.demo_spring.service.inventory.InventoryReservationService;
+import com.gm2dev.demo_spring.service.outbox.OutboxService;
 import com.gm2dev.demo_spring.service.product.ProductService;
+import com.gm2dev.demo_spring.service.sales.SalesRollupService;
 import com.gm2dev.demo_spring.service.user.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -20,7 +27,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
 import com.gm2dev.demo_spring.dto.order.CreateOrderRequest.OrderItemRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -30,15 +45,25 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ProductService productService;
     private final UserService userService;
+    private final OutboxService outboxService;
+    private final SalesRollupService salesRollupService;
+    private final OrderStatusEvents orderStatusEvents;
+    private final Optional<InventoryReservationService> inventoryReservationService;
 
     @Transactional(readOnly = true)
-    public Page<Order> getUserOrders(UserPrincipal currentUser, Pageable pageable) {
-        return orderRepository.findByUserIdWithItems(currentUser.getId(), pageable);
+    public Page<Order> getUserOrders(UserPrincipal currentUser, boolean includeArchived, Pageable pageable) {
+        return loadPage(orderRepository.findIdsByUserId(currentUser.getId(), archivedStates(includeArchived), pageable));
     }
 
     @Transactional(readOnly = true)
-    public Page<Order> getUserOrdersByStatus(UserPrincipal currentUser, OrderStatus status, Pageable pageable) {
-        return orderRepository.findByUserIdAndStatus(currentUser.getId(), status, pageable);
+    public Page<Order> getUserOrdersByStatus(UserPrincipal currentUser, OrderStatus status, boolean includeArchived, Pageable pageable) {
+        return loadPage(orderRepository.findIdsByUserIdAndStatus(currentUser.getId(), status, archivedStates(includeArchived), pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryView> getUserOrderSummaries(UserPrincipal currentUser, OrderStatus status, boolean includeArchived,
+                                                        Pageable pageable) {
+        return orderRepository.findSummariesByUserId(currentUser.getId(), status, archivedStates(includeArchived), pageable);
     }
 
     @Transactional(readOnly = true)
@@ -49,14 +74,37 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public Page<Order> getAllOrders(Pageable pageable) {
-        return orderRepository.findAllWithItems(pageable);
+    public Page<Order> getAllOrders(boolean includeArchived, Pageable pageable) {
+        return loadPage(orderRepository.findAllIds(archivedStates(includeArchived), pageable));
     }
 
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public Page<Order> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        return orderRepository.findByStatus(status, pageable);
+    public Page<Order> getOrdersByStatus(OrderStatus status, boolean includeArchived, Pageable pageable) {
+        return loadPage(orderRepository.findIdsByStatus(status, archivedStates(includeArchived), pageable));
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Page<OrderSummaryView> getOrderSummaries(OrderStatus status, boolean includeArchived, Pageable pageable) {
+        return orderRepository.findSummaries(status, archivedStates(includeArchived), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderExpansion expandOrders(Page<OrderSummaryView> orders) {
+        if (orders.isEmpty()) {
+            return new OrderExpansion(List.of(), List.of(), List.of());
+        }
+
+        List<OrderItemView> items = orderRepository.findItemViewsByOrderIdIn(
+                orders.map(OrderSummaryView::getId).getContent());
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        items.forEach(item -> productIds.add(item.getProductId()));
+        Set<Long> userIds = new LinkedHashSet<>();
+        orders.forEach(order -> userIds.add(order.getUserId()));
+
+        return new OrderExpansion(items, productService.getProductSummaries(productIds), userService.getUserSummaries(userIds));
     }
 
     @Transactional(readOnly = true)
@@ -68,46 +116,61 @@ public class OrderService {
 
     @Transactional
     public Order createOrder(UserPrincipal currentUser, String shippingAddress, List<CreateOrderRequest.OrderItemRequest> orderItems) {
-        User user = userService.getCurrentUser(currentUser);
+        Map<Long, Integer> quantities = mergeOrderLines(orderItems);
+        Map<Long, Product> products = productService.getProductsByIdIn(quantities.keySet());
 
-        Order order = Order.builder()
-                .user(user)
-                .shippingAddress(shippingAddress)
-                .status(OrderStatus.PENDING)
-                .build();
+        Order order = buildOrder(currentUser.getId(), shippingAddress, quantities, products);
+        allocateStock(quantities, products);
 
-        for (OrderItemRequest itemRequest : orderItems) {
-            Product product = productService.getProductById(itemRequest.getProductId());
-
-            // Check stock availability
-            if (product.getStockQuantity() < itemRequest.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-            }
-
-            OrderItem orderItem = OrderItem.builder()
-                    .product(product)
-                    .quantity(itemRequest.getQuantity())
-                    .unitPrice(product.getPrice())
-                    .build();
+        log.info("Creating order for user: {} with total: {}", currentUser.getUsername(), order.getTotalAmount());
+        Order savedOrder = orderRepository.save(order);
+        recordOrderCreated(savedOrder);
+        salesRollupService.recordOrdersPlaced(List.of(savedOrder));
+        return savedOrder;
+    }
 
-            order.addOrderItem(orderItem);
+    // Group commit for queued intake: one product lookup, one batched stock update and one transaction
+    // for all orders. Any rejected line fails the whole batch so the caller can retry orders one by one.
+    @Transactional
+    public List<Order> createOrders(List<OrderCommand> commands) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        commands.forEach(command -> productIds.addAll(command.quantities().keySet()));
+        Map<Long, Product> products = productService.getProductsByIdIn(productIds);
 
-            // Decrease stock
-            productService.decreaseStock(product.getId(), itemRequest.getQuantity());
+        List<Order> orders = new ArrayList<>(commands.size());
+        Map<Long, Integer> totals = new LinkedHashMap<>();
+        for (OrderCommand command : commands) {
+            orders.add(buildOrder(command.userId(), command.shippingAddress(), command.quantities(), products));
+            command.quantities().forEach((productId, quantity) -> totals.merge(productId, quantity, Integer::sum));
         }
+        allocateStock(totals, products);
 
-        order.updateTotalAmount();
-
-        log.info("Creating order for user: {} with total: {}", user.getUsername(), order.getTotalAmount());
-        return orderRepository.save(order);
+        log.info("Creating {} queued orders in one transaction", orders.size());
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        savedOrders.forEach(this::recordOrderCreated);
+        salesRollupService.recordOrdersPlaced(savedOrders);
+        return savedOrders;
     }
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public Order updateOrderStatus(Long orderId, OrderStatus newStatus) {
+        // Locked before the read, so the transition is checked against the status a concurrent sweep left behind
+        orderRepository.lockOrder(orderId);
         Order order = getOrderByIdAdmin(orderId);
         OrderStatus oldStatus = order.getStatus();
-        order.setStatus(newStatus);
+        if (oldStatus != newStatus) {
+            if (!oldStatus.canTransitionTo(newStatus)) {
+                throw new IllegalStateException("Cannot change order status from " + oldStatus + " to " + newStatus);
+            }
+            order.setStatus(newStatus);
+            recordStatusChanged(order, oldStatus);
+            if (newStatus == OrderStatus.CANCELLED) {
+                // Same bookkeeping as a customer cancellation: the sale is undone and its stock returned
+                salesRollupService.recordOrderCancelled(order);
+                restock(order);
+            }
+        }
 
         log.info("Updating order {} status from {} to {}", orderId, oldStatus, newStatus);
         return orderRepository.save(order);
@@ -115,6 +178,8 @@ public class OrderService {
 
     @Transactional
     public Order cancelOrder(Long orderId, UserPrincipal currentUser) {
+        // Same row lock the expiry sweeper claims, so an order is never cancelled and restocked twice
+        orderRepository.lockOrder(orderId);
         Order order = getOrderById(orderId, currentUser);
 
         if (order.getStatus() != OrderStatus.PENDING) {
@@ -122,14 +187,106 @@ public class OrderService {
         }
 
         order.setStatus(OrderStatus.CANCELLED);
+        recordStatusChanged(order, OrderStatus.PENDING);
+        salesRollupService.recordOrderCancelled(order);
+        restock(order);
+
+        log.info("Cancelled order: {}", orderId);
+        return orderRepository.save(order);
+    }
 
-        // Restore stock for cancelled items
+    // Restore stock for cancelled items
+    private void restock(Order order) {
+        Map<Long, Integer> restock = new LinkedHashMap<>();
         for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
+            restock.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
         }
+        productService.increaseStock(restock);
+    }
 
-        log.info("Cancelled order: {}", orderId);
-        return orderRepository.save(order);
+    // Archived orders are only read when asked for, which on PostgreSQL prunes the archive partitions
+    private static List<Boolean> archivedStates(boolean includeArchived) {
+        return includeArchived ? List.of(false, true) : List.of(false);
+    }
+
+    // Second phase of paged reads: fetch the graph for one page of ids and restore the page order
+    private Page<Order> loadPage(Page<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return new PageImpl<>(List.of(), orderIds.getPageable(), orderIds.getTotalElements());
+        }
+
+        Map<Long, Order> ordersById = new HashMap<>();
+        for (Order order : orderRepository.findAllWithItemsByIdIn(orderIds.getContent())) {
+            ordersById.put(order.getId(), order);
+            // Initializing the first proxy loads the page's products in batches; mapping happens outside the transaction
+            order.getOrderItems().forEach(item -> Hibernate.initialize(item.getProduct()));
+        }
+
+        List<Order> orders = orderIds.getContent().stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(orders, orderIds.getPageable(), orderIds.getTotalElements());
+    }
+
+    private Order buildOrder(Long userId, String shippingAddress, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        Order order = Order.builder()
+                .user(userService.getUserReference(userId))
+                .shippingAddress(shippingAddress)
+                .status(OrderStatus.PENDING)
+                .build();
+
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", line.getKey());
+            }
+
+            order.addOrderItem(OrderItem.of(product, line.getValue()));
+        }
+
+        order.updateTotalAmount();
+        return order;
+    }
+
+    private void allocateStock(Map<Long, Integer> quantities, Map<Long, Product> products) {
+        // Hot SKUs are served from the in-memory reservation engine when it is enabled
+        Map<Long, Integer> databaseLines = inventoryReservationService
+                .map(engine -> engine.reserveForCheckout(quantities, products))
+                .orElse(quantities);
+
+        // Decrease stock with one conditional UPDATE per product, sent as a single batch
+        if (!databaseLines.isEmpty()) {
+            productService.decreaseStock(databaseLines);
+        }
+        quantities.forEach((productId, quantity) -> {
+            if (!databaseLines.containsKey(productId)) {
+                productService.recordStockChange(productId, -quantity);
+            }
+        });
+    }
+
+    private void recordOrderCreated(Order order) {
+        List<OrderCreatedEvent.Line> lines = order.getOrderItems().stream()
+                .map(item -> new OrderCreatedEvent.Line(item.getProduct().getId(), item.getQuantity(), item.getUnitPrice().toBigDecimal()))
+                .toList();
+        outboxService.record("Order", order.getId(),
+                new OrderCreatedEvent(order.getId(), order.getUser().getId(), order.getTotalAmount().toBigDecimal(), lines));
+    }
+
+    private void recordStatusChanged(Order order, OrderStatus previousStatus) {
+        orderStatusEvents.statusChanged(order.getId(), order.getUser().getId(), previousStatus, order.getStatus());
+    }
+
+    // Collapses repeated product lines so each product is checked, decremented and inserted once
+    static Map<Long, Integer> mergeOrderLines(List<OrderItemRequest> orderItems) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest itemRequest : orderItems) {
+            if (itemRequest.getProductId() == null || itemRequest.getQuantity() == null || itemRequest.getQuantity() < 1) {
+                throw new IllegalArgumentException("Each order item requires a product id and a positive quantity");
+            }
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        return quantities;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.gm2dev.demo_spring.service.order;
+
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.event.OrderStatusChangedEvent;
+import com.gm2dev.demo_spring.service.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Single place where a status change becomes an outbox row and an in-process event (the SSE stream
+// reacts after commit), whether it came from one order entity or a set-based update
+@Component
+@RequiredArgsConstructor
+public class OrderStatusEvents {
+
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void statusChanged(Long orderId, Long userId, OrderStatus previousStatus, OrderStatus status) {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(orderId, userId, previousStatus, status);
+        outboxService.record("Order", orderId, event);
+        eventPublisher.publishEvent(event);
+    }
+}
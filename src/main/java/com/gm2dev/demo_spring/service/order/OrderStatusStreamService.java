@@ -0,0 +1,198 @@
+package com.gm2dev.demo_spring.service.order;
+
+import com.gm2dev.demo_spring.config.OrderStreamProperties;
+import com.gm2dev.demo_spring.event.OrderStatusChangedEvent;
+import com.gm2dev.demo_spring.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pushes committed order status changes to the owning user's open SSE connections.
+// SseEmitter uses async servlet support, so an idle stream holds no request thread; sending runs on
+// virtual threads so a slow client never blocks the transaction that changed the order.
+// Each connection sends from its own queue, one event at a time: events are queued in id order under the
+// replay buffer lock, so a client never sees ids go backwards and its Last-Event-ID is always a safe resume point.
+// The replay buffer is per instance: a client resuming on another instance gets a "resync" event.
+@Slf4j
+@Service
+public class OrderStatusStreamService {
+
+    private static final String STATUS_EVENT = "order-status";
+    private static final String RESYNC_EVENT = "resync";
+
+    private final OrderStreamProperties properties;
+    private final Map<Long, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final Deque<StreamedEvent> replayBuffer = new ArrayDeque<>();
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Seeded from the clock so ids keep increasing across restarts
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public OrderStatusStreamService(OrderStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("orders.stream.connections", connectionsByUser,
+                        connections -> connections.values().stream().mapToInt(List::size).sum())
+                .description("Open order status SSE connections")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection -> connection.emitter().complete()));
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Connection connection = new Connection(userId, emitter);
+
+        // Registered and replayed under the buffer lock, so no live event can slip in ahead of the replay.
+        // The emitter is not handed to the container yet, so replayed events are only buffered here.
+        synchronized (replayBuffer) {
+            connectionsByUser.compute(userId, (id, connections) -> {
+                List<Connection> current = connections == null ? new CopyOnWriteArrayList<>() : connections;
+                if (current.size() >= properties.getMaxConnectionsPerUser()) {
+                    throw new TooManyRequestsException("Too many open order streams, close one before opening another");
+                }
+                current.add(connection);
+                return current;
+            });
+            if (lastEventId != null) {
+                replay(connection, lastEventId);
+            }
+        }
+
+        emitter.onCompletion(() -> remove(connection));
+        // Completing here ends the stream normally instead of dispatching an AsyncRequestTimeoutException
+        emitter.onTimeout(() -> {
+            remove(connection);
+            emitter.complete();
+        });
+        emitter.onError(ex -> remove(connection));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        synchronized (replayBuffer) {
+            StreamedEvent streamed = new StreamedEvent(sequence.incrementAndGet(), event);
+            replayBuffer.addLast(streamed);
+            if (replayBuffer.size() > properties.getReplayBufferSize()) {
+                replayBuffer.removeFirst();
+            }
+
+            List<Connection> connections = connectionsByUser.get(event.userId());
+            if (connections != null) {
+                connections.forEach(connection -> connection.enqueue(statusEvent(streamed)));
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and detects clients that went away
+    @Scheduled(fixedRateString = "${app.orders.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection ->
+                connection.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    // Caller holds the replay buffer lock
+    private void replay(Connection connection, long lastEventId) {
+        boolean complete = replayBuffer.isEmpty() ? lastEventId >= sequence.get() - 1
+                : lastEventId >= replayBuffer.peekFirst().id() - 1;
+        if (!complete) {
+            // Events were dropped from the buffer (or emitted by another instance): the client must refetch
+            connection.send(SseEmitter.event().id(String.valueOf(sequence.get())).name(RESYNC_EVENT).data("resync"));
+        }
+        for (StreamedEvent streamed : replayBuffer) {
+            if (streamed.id() > lastEventId && streamed.event().userId().equals(connection.userId())) {
+                connection.send(statusEvent(streamed));
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder statusEvent(StreamedEvent streamed) {
+        return SseEmitter.event()
+                .id(String.valueOf(streamed.id()))
+                .name(STATUS_EVENT)
+                .data(streamed.event());
+    }
+
+    private void remove(Connection connection) {
+        connectionsByUser.computeIfPresent(connection.userId(), (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private record StreamedEvent(long id, OrderStatusChangedEvent event) {
+    }
+
+    // One open stream. Events queue up and a single drain task at a time sends them in order.
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        Long userId() {
+            return userId;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                fanOutExecutor.execute(this::drain);
+            }
+        }
+
+        // Re-checks after letting go of the flag, so an event queued just before it was cleared is not stranded
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pending.poll()) != null) {
+                    send(event);
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Dropping order stream for user {}: {}", userId, ex.getMessage());
+                pending.clear();
+                remove(this);
+            }
+        }
+    }
+}
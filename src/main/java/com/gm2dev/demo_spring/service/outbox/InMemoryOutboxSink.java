@@ -0,0 +1,39 @@
+package com.gm2dev.demo_spring.service.outbox;
+
+import com.gm2dev.demo_spring.config.OutboxProperties;
+import com.gm2dev.demo_spring.entity.outbox.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final OutboxProperties properties;
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            events.addLast(event);
+            if (events.size() > properties.getMemorySinkCapacity()) {
+                events.removeFirst();
+            }
+        }
+    }
+
+    public synchronized List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+}
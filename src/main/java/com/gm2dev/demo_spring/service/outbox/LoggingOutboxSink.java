@@ -0,0 +1,29 @@
+package com.gm2dev.demo_spring.service.outbox;
+
+import com.gm2dev.demo_spring.entity.outbox.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Route the "outbox" logger to its own file appender to get a local event log
+@Slf4j(topic = "outbox")
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("{\"id\":{},\"type\":\"{}\",\"aggregateType\":\"{}\",\"aggregateId\":{},\"createdAt\":\"{}\",\"payload\":{}}",
+                    event.getId(), event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                    event.getCreatedAt(), event.getPayload());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.gm2dev.demo_spring.service.outbox;
+
+import com.gm2dev.demo_spring.config.OutboxProperties;
+import com.gm2dev.demo_spring.entity.outbox.OutboxEvent;
+import com.gm2dev.demo_spring.entity.outbox.OutboxGap;
+import com.gm2dev.demo_spring.entity.outbox.OutboxOffset;
+import com.gm2dev.demo_spring.repository.outbox.OutboxEventRepository;
+import com.gm2dev.demo_spring.repository.outbox.OutboxGapRepository;
+import com.gm2dev.demo_spring.repository.outbox.OutboxOffsetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Drains outbox_events to the configured sink in id order and records the delivered position.
+// The offset row is locked for the batch, so several instances can run the relay safely.
+// Ids the offset moves past while missing are kept in outbox_gaps and re-checked until the gap horizon,
+// so an event from a transaction slower than the settle delay is delivered late rather than dropped.
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final OutboxGapRepository outboxGapRepository;
+    private final OutboxSink sink;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong lagEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter lateCounter;
+    private final Counter abandonedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxOffsetRepository outboxOffsetRepository,
+                       OutboxGapRepository outboxGapRepository,
+                       OutboxSink sink,
+                       OutboxProperties properties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.outboxGapRepository = outboxGapRepository;
+        this.sink = sink;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.publishedCounter = Counter.builder("outbox.events.published")
+                .description("Outbox events delivered to the sink")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        this.lateCounter = Counter.builder("outbox.events.late")
+                .description("Outbox events that committed below the delivered offset and were delivered out of order")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("outbox.gaps.abandoned")
+                .description("Skipped outbox event ids given up on after the gap horizon")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.events", lagEvents, AtomicLong::get)
+                .description("Outbox events written but not yet delivered")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age in seconds of the oldest undelivered outbox event")
+                .baseUnit("seconds")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval:PT0.5S}")
+    public void relay() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        try {
+            while (relayBatch() >= properties.getBatchSize()) {
+                // keep draining while batches come back full (late events can push a batch past the size)
+            }
+        } catch (RuntimeException ex) {
+            log.error("Outbox relay to {} failed, will retry", sink.name(), ex);
+        }
+    }
+
+    public int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            OutboxOffset offset = outboxOffsetRepository.findForUpdate(sink.name())
+                    .orElseGet(() -> outboxOffsetRepository.saveAndFlush(OutboxOffset.builder()
+                            .consumer(sink.name())
+                            .lastEventId(0L)
+                            .build()));
+
+            List<OutboxEvent> late = recoverGaps(offset.getConsumer());
+            List<OutboxEvent> ready = settled(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(
+                    offset.getLastEventId(), Limit.of(properties.getBatchSize())), offset);
+            if (late.isEmpty() && ready.isEmpty()) {
+                return 0;
+            }
+
+            List<OutboxEvent> batch = new ArrayList<>(late.size() + ready.size());
+            batch.addAll(late);
+            batch.addAll(ready);
+            sink.publish(batch);
+            if (!ready.isEmpty()) {
+                offset.setLastEventId(ready.get(ready.size() - 1).getId());
+            }
+            return batch.size();
+        });
+
+        int count = delivered == null ? 0 : delivered;
+        publishedCounter.increment(count);
+        updateLag();
+        return count;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:PT1H}")
+    public void purgeDelivered() {
+        Integer purged = transactionTemplate.execute(status -> outboxOffsetRepository.findById(sink.name())
+                .map(offset -> outboxEventRepository.deleteDelivered(offset.getLastEventId(),
+                        LocalDateTime.now().minus(properties.getRetention())))
+                .orElse(0));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    // Ids are assigned at insert but become visible at commit. A gap followed by a fresh event may
+    // be a transaction still in flight, so stop there until the settle delay has passed. Past that the
+    // gap is most likely a rollback: the offset moves on and the missing ids are recorded for recoverGaps.
+    private List<OutboxEvent> settled(List<OutboxEvent> candidates, OutboxOffset offset) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settledBefore = now.minus(properties.getSettleDelay());
+        long expectedId = offset.getLastEventId() + 1;
+        List<OutboxEvent> ready = new ArrayList<>(candidates.size());
+        for (OutboxEvent event : candidates) {
+            if (event.getId() != expectedId) {
+                if (event.getCreatedAt().isAfter(settledBefore)) {
+                    break;
+                }
+                trackGap(offset.getConsumer(), expectedId, event.getId() - 1, now);
+            }
+            ready.add(event);
+            expectedId = event.getId() + 1;
+        }
+        return ready;
+    }
+
+    private void trackGap(String consumer, long fromId, long toId, LocalDateTime skippedAt) {
+        long width = toId - fromId + 1;
+        if (width > properties.getMaxTrackedGap()) {
+            log.warn("Outbox relay to {} skipped {} event ids [{}, {}] without tracking them; events committed there later are lost",
+                    consumer, width, fromId, toId);
+            return;
+        }
+        List<OutboxGap> gaps = new ArrayList<>((int) width);
+        for (long id = fromId; id <= toId; id++) {
+            gaps.add(OutboxGap.builder().consumer(consumer).eventId(id).skippedAt(skippedAt).build());
+        }
+        outboxGapRepository.saveAll(gaps);
+    }
+
+    // Events that committed after the offset moved past their id. They are delivered out of id order,
+    // which consumers already tolerate across redeliveries; ids still missing after the horizon are dropped.
+    private List<OutboxEvent> recoverGaps(String consumer) {
+        List<OutboxGap> gaps = outboxGapRepository.findByConsumerOrderByEventIdAsc(consumer, Limit.of(properties.getBatchSize()));
+        List<OutboxEvent> late = List.of();
+        if (!gaps.isEmpty()) {
+            Map<Long, OutboxGap> gapsByEventId = gaps.stream()
+                    .collect(Collectors.toMap(OutboxGap::getEventId, Function.identity()));
+            late = outboxEventRepository.findAllById(gapsByEventId.keySet()).stream()
+                    .sorted(Comparator.comparing(OutboxEvent::getId))
+                    .toList();
+            if (!late.isEmpty()) {
+                outboxGapRepository.deleteAllInBatch(late.stream().map(event -> gapsByEventId.get(event.getId())).toList());
+                lateCounter.increment(late.size());
+                log.warn("Outbox relay to {} found {} events below its offset (ids {}); delivering them out of order",
+                        consumer, late.size(), late.stream().map(OutboxEvent::getId).toList());
+            }
+        }
+
+        int abandoned = outboxGapRepository.deleteExpired(consumer, LocalDateTime.now().minus(properties.getGapHorizon()));
+        if (abandoned > 0) {
+            abandonedCounter.increment(abandoned);
+            log.error("Outbox relay to {} gave up on {} skipped event ids after {}; events committed there later are lost",
+                    consumer, abandoned, properties.getGapHorizon());
+        }
+        return late;
+    }
+
+    private void updateLag() {
+        long delivered = outboxOffsetRepository.findById(sink.name()).map(OutboxOffset::getLastEventId).orElse(0L);
+        Long maxId = outboxEventRepository.findMaxId();
+        lagEvents.set(maxId == null ? 0 : Math.max(0, maxId - delivered));
+
+        LocalDateTime oldest = outboxEventRepository.findOldestCreatedAtAfter(delivered);
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.gm2dev.demo_spring.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.entity.outbox.OutboxEvent;
+import com.gm2dev.demo_spring.repository.outbox.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // MANDATORY: an event is only meaningful if it commits or rolls back with the change it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, Object payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(payload.getClass().getSimpleName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox event " + payload.getClass().getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.gm2dev.demo_spring.service.outbox;
+
+import com.gm2dev.demo_spring.entity.outbox.OutboxEvent;
+
+import java.util.List;
+
+// Delivery target for relayed outbox events. Delivery is at-least-once: a batch may be
+// published again if the relay fails before its offset is saved, so consumers dedupe by event id.
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxEvent> events);
+}
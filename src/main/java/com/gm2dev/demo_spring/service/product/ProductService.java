@@ -1,24 +1,40 @@
 package com.gm2dev.demo_spring.service.product;
 
 import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.event.StockChangedEvent;
+import com.gm2dev.demo_spring.exception.BadRequestException;
 import com.gm2dev.demo_spring.exception.ResourceNotFoundException;
 import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import com.gm2dev.demo_spring.repository.product.ProductStockView;
+import com.gm2dev.demo_spring.repository.product.ProductSummaryView;
+import com.gm2dev.demo_spring.service.outbox.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    public static final int MAX_BATCH_SIZE = 100;
+
     private final ProductRepository productRepository;
+    private final OutboxService outboxService;
 
     @Transactional(readOnly = true)
     public Page<Product> getAllProducts(Pageable pageable) {
@@ -56,6 +72,45 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
     }
 
+    // Single IN query; result keeps request order and omits ids that do not exist
+    @Transactional(readOnly = true)
+    public Map<Long, Product> getProductsByIds(List<Long> productIds) {
+        List<Long> ids = distinctBatchIds(productIds);
+        Map<Long, Product> found = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<Long, Product> products = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.put(id, product);
+            }
+        }
+        return products;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Product> getProductsByIdIn(Collection<Long> productIds) {
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getStockQuantitiesByIds(List<Long> productIds) {
+        List<Long> ids = distinctBatchIds(productIds);
+        Map<Long, Integer> found = productRepository.findStockByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductStockView::getId, ProductStockView::getStockQuantity));
+
+        Map<Long, Integer> stock = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Integer quantity = found.get(id);
+            if (quantity != null) {
+                stock.put(id, quantity);
+            }
+        }
+        return stock;
+    }
+
     @Transactional(readOnly = true)
     public List<String> getAllCategories() {
         return productRepository.findAllCategories();
@@ -75,15 +130,29 @@ public class ProductService {
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
-    public Product updateProduct(Long productId, Product productDetails) {
+    public Product updateProduct(Long productId, Product changes, Long expectedVersion) {
         Product product = getProductById(productId);
 
-        product.setName(productDetails.getName());
-        product.setDescription(productDetails.getDescription());
-        product.setPrice(productDetails.getPrice());
-        product.setStockQuantity(productDetails.getStockQuantity());
-        product.setCategory(productDetails.getCategory());
-        product.setImageUrl(productDetails.getImageUrl());
+        // Sales bump the version, so an edit made from an older read is refused instead of overwriting stock.
+        // The save is still guarded by @Version in case the row moves after this check.
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, productId);
+        }
+
+        Integer stockQuantity = changes.getStockQuantity();
+        if (stockQuantity != null && !stockQuantity.equals(product.getStockQuantity())) {
+            if (expectedVersion == null) {
+                throw new IllegalArgumentException("version is required to change stockQuantity");
+            }
+            recordStockChange(productId, stockQuantity - product.getStockQuantity());
+            product.setStockQuantity(stockQuantity);
+        }
+
+        Optional.ofNullable(changes.getName()).ifPresent(product::setName);
+        Optional.ofNullable(changes.getDescription()).ifPresent(product::setDescription);
+        Optional.ofNullable(changes.getPrice()).ifPresent(product::setPrice);
+        Optional.ofNullable(changes.getCategory()).ifPresent(product::setCategory);
+        Optional.ofNullable(changes.getImageUrl()).ifPresent(product::setImageUrl);
 
         log.info("Updating product: {}", product.getName());
         return productRepository.save(product);
@@ -97,13 +166,59 @@ public class ProductService {
         productRepository.delete(product);
     }
 
+    @Transactional(readOnly = true)
+    public List<ProductSummaryView> getProductSummaries(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findSummariesByIdIn(productIds);
+    }
+
     @Transactional
     public void decreaseStock(Long productId, Integer quantity) {
-        Product product = getProductById(productId);
-        if (product.getStockQuantity() < quantity) {
+        decreaseStock(Map.of(productId, quantity));
+    }
+
+    @Transactional
+    public void decreaseStock(Map<Long, Integer> quantitiesByProductId) {
+        List<Long> rejected = productRepository.decreaseStock(quantitiesByProductId);
+        if (!rejected.isEmpty()) {
+            Product product = getProductById(rejected.get(0));
             throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
         }
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+        quantitiesByProductId.forEach((productId, quantity) -> recordStockChange(productId, -quantity));
+    }
+
+    @Transactional
+    public void increaseStock(Map<Long, Integer> quantitiesByProductId) {
+        productRepository.increaseStock(quantitiesByProductId);
+        quantitiesByProductId.forEach(this::recordStockChange);
+    }
+
+    // Set-based restock for orders cancelled without loading them; unitsByProduct only feeds the stock events
+    @Transactional
+    public void restockOrders(Collection<Long> orderIds, Map<Long, Integer> unitsByProduct) {
+        productRepository.restockOrders(orderIds);
+        unitsByProduct.forEach(this::recordStockChange);
+    }
+
+    // For stock taken outside decreaseStock (the in-memory reservation engine) so consumers still see it
+    @Transactional
+    public void recordStockChange(Long productId, int delta) {
+        outboxService.record("Product", productId, new StockChangedEvent(productId, delta));
+    }
+
+    private List<Long> distinctBatchIds(List<Long> productIds) {
+        List<Long> ids = productIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            throw new BadRequestException("At least one product id is required");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch may contain at most " + MAX_BATCH_SIZE + " product ids");
+        }
+        return ids;
     }
 }
\ No newline at end of file
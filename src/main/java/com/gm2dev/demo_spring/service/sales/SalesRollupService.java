@@ -0,0 +1,181 @@
+package com.gm2dev.demo_spring.service.sales;
+
+import com.gm2dev.demo_spring.config.SalesRollupProperties;
+import com.gm2dev.demo_spring.dto.sales.SalesGrouping;
+import com.gm2dev.demo_spring.entity.common.Money;
+import com.gm2dev.demo_spring.entity.order.Order;
+import com.gm2dev.demo_spring.entity.order.OrderItem;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.entity.sales.SalesDailyCategory;
+import com.gm2dev.demo_spring.entity.sales.SalesDailyCategoryId;
+import com.gm2dev.demo_spring.entity.sales.SalesDailyProduct;
+import com.gm2dev.demo_spring.entity.sales.SalesDailyProductId;
+import com.gm2dev.demo_spring.exception.BadRequestException;
+import com.gm2dev.demo_spring.repository.order.OrderLineSalesView;
+import com.gm2dev.demo_spring.repository.sales.SalesBucketView;
+import com.gm2dev.demo_spring.repository.sales.SalesDailyCategoryRepository;
+import com.gm2dev.demo_spring.repository.sales.SalesDailyProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Keeps daily sales rollups current in the same transaction as the order change, so the stats
+// endpoint reads a few hundred rollup rows instead of scanning orders. A day is keyed by the
+// order's creation date; cancelled orders are subtracted. Each transaction writes to one of
+// write-shards rows per key, so checkouts in a popular category do not queue on a single row lock.
+// The nightly rebuild recomputes recent days from orders into shard 0, which also repairs drift
+// such as a product moved to another category.
+@Slf4j
+@Service
+public class SalesRollupService {
+
+    private final SalesDailyProductRepository productRollupRepository;
+    private final SalesDailyCategoryRepository categoryRollupRepository;
+    private final SalesRollupProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public SalesRollupService(SalesDailyProductRepository productRollupRepository,
+                              SalesDailyCategoryRepository categoryRollupRepository,
+                              SalesRollupProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.productRollupRepository = productRollupRepository;
+        this.categoryRollupRepository = categoryRollupRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrdersPlaced(List<Order> orders) {
+        apply(saleLines(orders), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderCancelled(Order order) {
+        apply(saleLines(List.of(order)), -1);
+    }
+
+    // For set-based cancellations that never load the order graph
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordLinesCancelled(List<OrderLineSalesView> lines) {
+        apply(lines.stream()
+                .map(line -> new SaleLine(line.getOrderCreatedAt().toLocalDate(), line.getProductId(), line.getCategory(),
+                        line.getQuantity(), line.getSubtotal()))
+                .toList(), -1);
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SalesStats getStats(LocalDate from, LocalDate to, SalesGrouping groupBy, int limit) {
+        validateRange(from, to);
+        if (limit < 1 || limit > properties.getMaxBuckets()) {
+            throw new BadRequestException("limit must be between 1 and " + properties.getMaxBuckets());
+        }
+
+        List<SalesBucketView> days = categoryRollupRepository.findDailyTotals(from, to);
+        List<SalesBucketView> buckets = switch (groupBy) {
+            case DAY -> days;
+            case CATEGORY -> categoryRollupRepository.findTopCategories(from, to, PageRequest.ofSize(limit));
+            case PRODUCT -> productRollupRepository.findTopProducts(from, to, PageRequest.ofSize(limit));
+        };
+        return new SalesStats(from, to, groupBy, days, buckets);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public int rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return rebuildDays(from, to);
+    }
+
+    @Scheduled(cron = "${app.sales.rollup.rebuild-cron:0 30 2 * * *}")
+    public void rebuildRecent() {
+        LocalDate today = LocalDate.now();
+        int days = rebuildDays(today.minusDays(properties.getRebuildLookbackDays() - 1L), today);
+        log.info("Rebuilt sales rollups for the last {} days", days);
+    }
+
+    // One transaction per day keeps each rebuild step short. On PostgreSQL the repositories lock the day
+    // against order transactions first, so each order is either in the re-read or added afterwards.
+    private int rebuildDays(LocalDate from, LocalDate to) {
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate current = day;
+            transactionTemplate.executeWithoutResult(status -> {
+                productRollupRepository.rebuildDay(current);
+                categoryRollupRepository.rebuildDay(current);
+            });
+            days++;
+        }
+        return days;
+    }
+
+    private void apply(List<SaleLine> lines, int sign) {
+        int shard = ThreadLocalRandom.current().nextInt(Math.max(1, properties.getWriteShards()));
+        Map<SalesDailyProductId, SalesDailyProduct> byProduct = new HashMap<>();
+        Map<SalesDailyCategoryId, SalesDailyCategory> byCategory = new HashMap<>();
+
+        for (SaleLine line : lines) {
+            String category = line.category() == null ? SalesDailyCategory.UNCATEGORIZED : line.category();
+            long units = (long) sign * line.quantity();
+            BigDecimal revenue = line.subtotal().times(sign).toBigDecimal();
+
+            byProduct.merge(new SalesDailyProductId(line.day(), line.productId(), shard),
+                    new SalesDailyProduct(line.day(), line.productId(), shard, (long) sign, units, revenue),
+                    (existing, delta) -> {
+                        existing.setLineCount(existing.getLineCount() + delta.getLineCount());
+                        existing.setUnits(existing.getUnits() + delta.getUnits());
+                        existing.setRevenue(existing.getRevenue().add(delta.getRevenue()));
+                        return existing;
+                    });
+            byCategory.merge(new SalesDailyCategoryId(line.day(), category, shard),
+                    new SalesDailyCategory(line.day(), category, shard, (long) sign, units, revenue),
+                    (existing, delta) -> {
+                        existing.setLineCount(existing.getLineCount() + delta.getLineCount());
+                        existing.setUnits(existing.getUnits() + delta.getUnits());
+                        existing.setRevenue(existing.getRevenue().add(delta.getRevenue()));
+                        return existing;
+                    });
+        }
+
+        productRollupRepository.addSales(byProduct.values());
+        categoryRollupRepository.addSales(byCategory.values());
+    }
+
+    private static List<SaleLine> saleLines(List<Order> orders) {
+        List<SaleLine> lines = new ArrayList<>();
+        for (Order order : orders) {
+            LocalDate day = order.getCreatedAt().toLocalDate();
+            for (OrderItem item : order.getOrderItems()) {
+                Product product = item.getProduct();
+                lines.add(new SaleLine(day, product.getId(), product.getCategory(), item.getQuantity(), item.getSubtotal()));
+            }
+        }
+        return lines;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= properties.getMaxRangeDays()) {
+            throw new BadRequestException("Date range must not exceed " + properties.getMaxRangeDays() + " days");
+        }
+    }
+
+    private record SaleLine(LocalDate day, Long productId, String category, int quantity, Money subtotal) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.gm2dev.demo_spring.service.sales;
+
+import com.gm2dev.demo_spring.dto.sales.SalesGrouping;
+import com.gm2dev.demo_spring.repository.sales.SalesBucketView;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Rollup rows for a date range: per-day totals (for the grand total) plus the requested grouping
+public record SalesStats(LocalDate from, LocalDate to, SalesGrouping groupBy,
+                         List<SalesBucketView> days, List<SalesBucketView> buckets) {
+}
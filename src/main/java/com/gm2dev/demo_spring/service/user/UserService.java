@@ -2,7 +2,9 @@ package com.gm2dev.demo_spring.service.user;
 
 import com.gm2dev.demo_spring.entity.user.User;
 import com.gm2dev.demo_spring.exception.ResourceNotFoundException;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
 import com.gm2dev.demo_spring.repository.user.UserRepository;
+import com.gm2dev.demo_spring.repository.user.UserSummaryView;
 import com.gm2dev.demo_spring.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,12 +14,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
 
     @Transactional(readOnly = true)
     public User getCurrentUser(UserPrincipal currentUser) {
@@ -30,6 +36,19 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
     }
 
+    // Lazy proxy for setting foreign keys without loading the user row
+    public User getUserReference(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryView> getUserSummaries(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findSummariesByIdIn(userIds);
+    }
+
     @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
         return userRepository.findByUsernameWithRoles(username)
@@ -69,6 +88,8 @@ public class UserService {
     public void deleteUser(Long userId) {
         User user = getUserById(userId);
         log.info("Deleting user: {}", user.getUsername());
+        // Orders go first and take their items with them; nothing else cascades to order_items
+        orderRepository.deleteByUserId(userId);
         userRepository.delete(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+-- Daily sales rollups, maintained incrementally by order creation and cancellation.
+-- Dates are the order creation date; cancelled orders are excluded.
+CREATE TABLE sales_daily_product (
+    sales_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    line_count BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, product_id)
+);
+
+CREATE TABLE sales_daily_category (
+    sales_date DATE NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    line_count BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, category)
+);
@@ -0,0 +1,75 @@
+-- Rebuild orders as a partitioned table. LIST on archived keeps the hot working set (active orders)
+-- apart from closed history; each side is RANGE partitioned on created_at, monthly for active orders
+-- and yearly for the archive. The application creates upcoming partitions (OrderArchiveService).
+--
+-- A partitioned table's primary key must include the partition keys, so orders(id) alone can no longer
+-- be referenced: order_items keeps order_id (indexed) without a foreign key.
+
+ALTER TABLE order_items DROP CONSTRAINT fk_order_items_order;
+
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+ALTER INDEX orders_pkey RENAME TO orders_unpartitioned_pkey;
+DROP INDEX idx_orders_user_id;
+DROP INDEX idx_orders_status;
+DROP INDEX idx_orders_created_at;
+DROP INDEX idx_orders_user_status;
+ALTER SEQUENCE orders_id_seq OWNED BY NONE;
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL DEFAULT nextval('orders_id_seq'),
+    user_id BIGINT NOT NULL,
+    shipping_address TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    total_amount DECIMAL(19,2) NOT NULL DEFAULT 0.00 CHECK (total_amount >= 0),
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_orders PRIMARY KEY (id, archived, created_at),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT chk_orders_status CHECK (status IN ('PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    CONSTRAINT chk_orders_archived_closed CHECK (NOT archived OR status IN ('DELIVERED', 'CANCELLED'))
+) PARTITION BY LIST (archived);
+
+ALTER SEQUENCE orders_id_seq OWNED BY orders.id;
+
+CREATE TABLE orders_active PARTITION OF orders FOR VALUES IN (FALSE) PARTITION BY RANGE (created_at);
+CREATE TABLE orders_archive PARTITION OF orders FOR VALUES IN (TRUE) PARTITION BY RANGE (created_at);
+
+-- Safety nets for rows outside every range partition; they stay readable, just unpruned
+CREATE TABLE orders_active_default PARTITION OF orders_active DEFAULT;
+CREATE TABLE orders_archive_default PARTITION OF orders_archive DEFAULT;
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM orders_unpartitioned), CURRENT_DATE))::DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::DATE;
+    partition_start DATE;
+BEGIN
+    partition_start := first_month;
+    WHILE partition_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE orders_active_p%s PARTITION OF orders_active FOR VALUES FROM (%L) TO (%L)',
+                       to_char(partition_start, 'YYYY_MM'), partition_start, (partition_start + INTERVAL '1 month')::DATE);
+        partition_start := (partition_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    partition_start := date_trunc('year', first_month)::DATE;
+    WHILE partition_start <= date_trunc('year', last_month)::DATE LOOP
+        EXECUTE format('CREATE TABLE orders_archive_p%s PARTITION OF orders_archive FOR VALUES FROM (%L) TO (%L)',
+                       to_char(partition_start, 'YYYY'), partition_start, (partition_start + INTERVAL '1 year')::DATE);
+        partition_start := (partition_start + INTERVAL '1 year')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO orders (id, user_id, shipping_address, status, total_amount, archived, created_at, updated_at)
+SELECT id, user_id, shipping_address, status, total_amount, FALSE, created_at, updated_at
+FROM orders_unpartitioned;
+
+DROP TABLE orders_unpartitioned;
+
+-- Partitioned indexes: created on every partition, present and future
+CREATE INDEX idx_orders_id ON orders(id);
+CREATE INDEX idx_orders_user_id ON orders(user_id);
+CREATE INDEX idx_orders_status ON orders(status);
+CREATE INDEX idx_orders_created_at ON orders(created_at);
+CREATE INDEX idx_orders_user_status ON orders(user_id, status);
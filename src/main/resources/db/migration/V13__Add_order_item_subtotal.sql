@@ -0,0 +1,8 @@
+-- Line subtotals are computed once when the order is placed and stored, so reads,
+-- totals and the sales rollup rebuild no longer multiply unit_price by quantity per row
+ALTER TABLE order_items ADD COLUMN subtotal DECIMAL(19,2);
+
+UPDATE order_items SET subtotal = unit_price * quantity;
+
+ALTER TABLE order_items ALTER COLUMN subtotal SET NOT NULL;
+ALTER TABLE order_items ADD CONSTRAINT chk_order_items_subtotal CHECK (subtotal >= 0);
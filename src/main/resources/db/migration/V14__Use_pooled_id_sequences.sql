@@ -0,0 +1,10 @@
+-- Hibernate now allocates ids from these sequences in blocks of 50 (pooled-lo optimizer), so inserts
+-- can be batched instead of returning one generated key per row. The increment must match the
+-- entities' allocationSize. Column defaults stay: a plain-SQL insert takes one nextval, which pooled-lo
+-- treats as a whole block, so it never collides with ids handed out by the application.
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE inventory_journal_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- Journal rows whose units stock_quantity could not cover at flush time stay behind, flagged,
+-- instead of the decrement being clamped at zero
+ALTER TABLE inventory_journal ADD COLUMN shortfall BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_inventory_journal_shortfall ON inventory_journal(shortfall) WHERE shortfall;
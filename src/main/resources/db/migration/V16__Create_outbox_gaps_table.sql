@@ -0,0 +1,9 @@
+-- Event ids a consumer's offset moved past while they were missing. The relay re-checks them until
+-- app.outbox.gap-horizon, so an event committed after the settle delay is still delivered (out of order)
+CREATE TABLE outbox_gaps (
+    id BIGSERIAL PRIMARY KEY,
+    consumer VARCHAR(100) NOT NULL,
+    event_id BIGINT NOT NULL,
+    skipped_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_outbox_gaps_consumer_event UNIQUE (consumer, event_id)
+);
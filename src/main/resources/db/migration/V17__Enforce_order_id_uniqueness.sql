@@ -0,0 +1,15 @@
+-- Since V12 the orders primary key is (id, archived, created_at) and order_items has no foreign key to
+-- orders, so neither constraint stops a duplicate id or an orphaned item. The invariant is that order ids
+-- come only from orders_id_seq (never supplied by hand or copied between rows). It is enforced here by a
+-- unique index on id in every partition (OrderRepositoryCustomImpl adds one to each partition it creates),
+-- and checked across partitions, together with orphaned order_items, by OrderArchiveService.checkIntegrity.
+DO $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname FROM pg_partition_tree('orders') t JOIN pg_class c ON c.oid = t.relid WHERE t.isleaf
+    LOOP
+        EXECUTE format('CREATE UNIQUE INDEX IF NOT EXISTS %I ON %I (id)', partition_name || '_id_key', partition_name);
+    END LOOP;
+END $$;
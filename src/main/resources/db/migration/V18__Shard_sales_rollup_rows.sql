@@ -0,0 +1,10 @@
+-- Every checkout upserted the same (day, category) row, so orders in a popular category queued on its row
+-- lock. Live writes now pick one of app.sales.rollup.write-shards rows per key and reads sum the shards;
+-- the nightly rebuild folds a day back into shard 0.
+ALTER TABLE sales_daily_product ADD COLUMN shard INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sales_daily_product DROP CONSTRAINT sales_daily_product_pkey;
+ALTER TABLE sales_daily_product ADD CONSTRAINT sales_daily_product_pkey PRIMARY KEY (sales_date, product_id, shard);
+
+ALTER TABLE sales_daily_category ADD COLUMN shard INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sales_daily_category DROP CONSTRAINT sales_daily_category_pkey;
+ALTER TABLE sales_daily_category ADD CONSTRAINT sales_daily_category_pkey PRIMARY KEY (sales_date, category, shard);
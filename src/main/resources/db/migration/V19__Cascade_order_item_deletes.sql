@@ -0,0 +1,20 @@
+-- V12 dropped fk_order_items_order (a partitioned orders table cannot be referenced by id alone), and with it
+-- the ON DELETE CASCADE from orders to order_items. This trigger puts the cascade back. An archive move is an
+-- UPDATE that PostgreSQL runs as a delete from orders_active plus an insert into orders_archive; row-level AFTER
+-- triggers fire at the end of the statement, so by then the moved order exists again and its items are kept.
+
+-- Items left behind by orders deleted since V12 (e.g. through the users cascade); they block product deletes
+DELETE FROM order_items oi WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = oi.order_id);
+
+CREATE FUNCTION delete_items_of_deleted_order() RETURNS TRIGGER AS $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM orders WHERE id = OLD.id) THEN
+        DELETE FROM order_items WHERE order_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_orders_delete_items
+    AFTER DELETE ON orders
+    FOR EACH ROW EXECUTE FUNCTION delete_items_of_deleted_order();
@@ -0,0 +1,3 @@
+-- Optimistic locking for products: atomic stock updates bump the version so
+-- concurrent admin edits are rejected instead of silently overwriting stock
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Write-behind journal for the in-memory inventory reservation engine.
+-- Rows are inserted in the order transaction and drained into products.stock_quantity in batches,
+-- so consumed stock survives a crash between checkout and flush
+CREATE TABLE inventory_journal (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_inventory_journal_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_inventory_journal_product_id ON inventory_journal(product_id);
@@ -0,0 +1,55 @@
+package com.gm2dev.demo_spring.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ZipfSamplerTest {
+
+    @Test
+    void sample_SameSeed_SameRanks() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0);
+
+        SplittableRandom first = new SplittableRandom(7);
+        SplittableRandom second = new SplittableRandom(7);
+        int[] firstRanks = IntStream.range(0, 100).map(i -> sampler.sample(first)).toArray();
+        int[] secondRanks = IntStream.range(0, 100).map(i -> sampler.sample(second)).toArray();
+
+        assertThat(firstRanks).isEqualTo(secondRanks);
+    }
+
+    @Test
+    void sample_Skewed_FrequencyFollowsRank() {
+        ZipfSampler sampler = new ZipfSampler(100, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[100];
+        for (int i = 0; i < 200_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        // P(rank) = 1 / ((rank + 1) * H(100)), H(100) ~ 5.19
+        assertThat(counts[0] / 200_000.0).isCloseTo(0.193, within(0.01));
+        assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[9] * 5);
+        assertThat(counts[99]).isPositive();
+    }
+
+    @Test
+    void sample_ExponentZero_Uniform() {
+        ZipfSampler sampler = new ZipfSampler(10, 0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[10];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        assertThat(counts).allSatisfy(count -> assertThat(count).isBetween(9_000, 11_000));
+    }
+
+    @Test
+    void constructor_EmptyRange_Rejected() {
+        assertThatThrownBy(() -> new ZipfSampler(0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
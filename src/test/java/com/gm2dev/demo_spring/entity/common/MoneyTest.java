@@ -0,0 +1,48 @@
+package com.gm2dev.demo_spring.entity.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ScaleDiffers_EqualAmountsAreEqual() {
+        assertThat(Money.of(new BigDecimal("1.5"))).isEqualTo(Money.of(new BigDecimal("1.50")));
+        assertThat(Money.of(new BigDecimal("99.99")).minorUnits()).isEqualTo(9999);
+    }
+
+    @Test
+    void of_FractionOfCent_RejectedUnlessRoundingGiven() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.005"))).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.of(new BigDecimal("0.005"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ZERO);
+        assertThat(Money.of(new BigDecimal("0.015"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ofMinor(2));
+    }
+
+    @Test
+    void times_Quantity_MatchesBigDecimal() {
+        Money subtotal = Money.of(new BigDecimal("99.99")).times(3);
+
+        assertThat(subtotal.toBigDecimal()).isEqualByComparingTo("299.97");
+        assertThat(subtotal.toString()).isEqualTo("299.97");
+    }
+
+    @Test
+    void times_Factor_RoundsOnce() {
+        Money price = Money.of(new BigDecimal("10.05"));
+
+        assertThat(price.times(new BigDecimal("0.15"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ofMinor(151));
+        assertThat(price.times(new BigDecimal("0.15"), RoundingMode.DOWN)).isEqualTo(Money.ofMinor(150));
+    }
+
+    @Test
+    void plus_Overflow_Throws() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.times(2)).isInstanceOf(ArithmeticException.class);
+    }
+}
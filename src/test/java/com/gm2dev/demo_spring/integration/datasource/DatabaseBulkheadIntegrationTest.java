@@ -0,0 +1,104 @@
+package com.gm2dev.demo_spring.integration.datasource;
+
+import com.gm2dev.demo_spring.exception.ServiceOverloadedException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// A small pool and no waiting room, so holding every connection makes the next caller overflow at once.
+// Not @Transactional: the test itself has to hold and release connections.
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "app.datasource.bulkhead.max-waiting=0",
+        "app.datasource.bulkhead.acquire-timeout=PT0.1S",
+        "app.datasource.bulkhead.retry-after-seconds=2"
+})
+@ActiveProfiles("test")
+class DatabaseBulkheadIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+    private final List<Connection> held = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        for (Connection connection : held) {
+            connection.close();
+        }
+        held.clear();
+    }
+
+    @Test
+    void getConnection_BeyondPoolSize_RejectedWithoutWaiting() throws SQLException {
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+
+        ServiceOverloadedException rejection = holdAllConnections();
+
+        assertThat(held).isNotEmpty().hasSizeLessThanOrEqualTo(poolSize);
+        assertThat(rejection.getRetryAfterSeconds()).isEqualTo(2);
+        assertThat(meterRegistry.get("datasource.bulkhead.rejected").tag("reason", "queue_full").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    void request_WhileDatabaseSaturated_ReturnsServiceUnavailable() throws Exception {
+        holdAllConnections();
+
+        mockMvc.perform(get("/products"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void request_AfterConnectionsReleased_Succeeds() throws Exception {
+        holdAllConnections();
+        tearDown();
+
+        mockMvc.perform(get("/products"))
+                .andExpect(status().isOk());
+    }
+
+    private ServiceOverloadedException holdAllConnections() throws SQLException {
+        while (true) {
+            try {
+                held.add(dataSource.getConnection());
+            } catch (ServiceOverloadedException ex) {
+                return ex;
+            }
+        }
+    }
+}
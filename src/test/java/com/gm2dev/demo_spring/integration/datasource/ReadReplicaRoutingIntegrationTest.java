@@ -0,0 +1,83 @@
+package com.gm2dev.demo_spring.integration.datasource;
+
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Two H2 databases stand in for primary and replica; the catalog name shows which pool served a query.
+// Not @Transactional: routing is decided per transaction, and stickiness starts at commit.
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.sticky-window=PT1M"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final String CURRENT_DATABASE_SQL = "SELECT DATABASE()";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_RoutedToReplica() {
+        assertThat(currentDatabase(true)).isEqualTo("REPLICADB");
+    }
+
+    @Test
+    void readWriteTransaction_RoutedToPrimary() {
+        assertThat(currentDatabase(false)).isEqualTo("TESTDB");
+    }
+
+    @Test
+    void outsideTransaction_RoutedToPrimary() {
+        assertThat(jdbcTemplate.queryForObject(CURRENT_DATABASE_SQL, String.class)).isEqualTo("TESTDB");
+    }
+
+    @Test
+    void readOnlyTransaction_AfterOwnWrite_StaysOnPrimary() {
+        authenticate(1001L);
+        assertThat(currentDatabase(true)).isEqualTo("REPLICADB");
+
+        currentDatabase(false);
+        assertThat(currentDatabase(true)).isEqualTo("TESTDB");
+
+        // Other users are unaffected by this user's write
+        authenticate(1002L);
+        assertThat(currentDatabase(true)).isEqualTo("REPLICADB");
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(CURRENT_DATABASE_SQL, String.class));
+    }
+
+    private void authenticate(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId, "user" + userId + "@example.com", "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.gm2dev.demo_spring.integration.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.dto.user.LoginRequest;
+import com.gm2dev.demo_spring.limit.AdaptiveConcurrencyLimitFilter;
+import com.gm2dev.demo_spring.limit.AdaptiveConcurrencyLimiter;
+import com.gm2dev.demo_spring.limit.AimdLimit;
+import com.gm2dev.demo_spring.limit.RequestPriority;
+import com.gm2dev.demo_spring.limit.RequestPriorityClassifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The limit is pinned at 2: with one request held open, anonymous browsing (share 0.5) is over its
+// share while admin traffic (share 1.0) still fits. MockMvc does not pick up servlet filters by itself.
+@SpringBootTest(properties = {
+        "app.concurrency-limit.initial-limit=2",
+        "app.concurrency-limit.min-limit=2",
+        "app.concurrency-limit.max-limit=2",
+        "app.concurrency-limit.shares.sheddable=0.5",
+        "app.concurrency-limit.shares.normal=0.5",
+        "app.concurrency-limit.retry-after-seconds=3"
+})
+@ActiveProfiles("test")
+class AdaptiveConcurrencyLimitIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> limitFilterRegistration;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+    private AdaptiveConcurrencyLimiter.Permit held;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(limitFilterRegistration.getFilter())
+                .apply(springSecurity())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (held != null) {
+            held.release(false);
+        }
+    }
+
+    @Test
+    void anonymousBrowsing_OverItsShare_ShedWithRetryAfter() throws Exception {
+        mockMvc.perform(get("/products")).andExpect(status().isOk());
+
+        holdOneRequest();
+        double rejectedBefore = rejected("sheddable");
+
+        mockMvc.perform(get("/products"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$.status").value(503));
+        assertThat(rejected("sheddable")).isEqualTo(rejectedBefore + 1);
+    }
+
+    @Test
+    void adminRequest_WhileBrowsingShed_Admitted() throws Exception {
+        String adminToken = signIn();
+        holdOneRequest();
+
+        mockMvc.perform(get("/orders/stats").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void healthCheck_WhileSaturated_NeverShed() throws Exception {
+        holdOneRequest();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire(RequestPriority.CRITICAL).orElseThrow();
+        try {
+            mockMvc.perform(get("/public/health")).andExpect(status().isOk());
+        } finally {
+            second.release(false);
+        }
+    }
+
+    // A zero timeout turns every sampled request into an overload sample, so only sampled paths move the limit
+    @Test
+    void slowAdminPath_Unsampled_NeverShrinksLimit() throws Exception {
+        AdaptiveConcurrencyLimiter aimdLimiter = new AdaptiveConcurrencyLimiter(new AimdLimit(10, 1, 10, 0.5),
+                Map.of(), Duration.ZERO, new SimpleMeterRegistry());
+        AdaptiveConcurrencyLimitFilter filter = new AdaptiveConcurrencyLimitFilter(aimdLimiter,
+                new RequestPriorityClassifier(), objectMapper, 1, List.of("/orders/stats/rebuild"));
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/orders/stats/rebuild"), new MockHttpServletResponse(),
+                new MockFilterChain());
+        assertThat(aimdLimiter.getLimit()).isEqualTo(10);
+        assertThat(aimdLimiter.getInFlight()).isZero();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders"), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(aimdLimiter.getLimit()).isEqualTo(5);
+    }
+
+    private void holdOneRequest() {
+        held = limiter.tryAcquire(RequestPriority.CRITICAL).orElseThrow();
+    }
+
+    private double rejected(String priority) {
+        return meterRegistry.get("http.server.concurrency.rejected").tag("priority", priority).counter().count();
+    }
+
+    private String signIn() throws Exception {
+        String response = mockMvc.perform(post("/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("admin", "admin123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("accessToken").asText();
+    }
+}
@@ -0,0 +1,109 @@
+package com.gm2dev.demo_spring.integration.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.dto.user.LoginRequest;
+import com.gm2dev.demo_spring.limit.BulkheadRegistry;
+import com.gm2dev.demo_spring.limit.RequestBulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Single-slot bulkheads without a waiting line: holding the slot from the test saturates the group.
+// Not @Transactional: a test transaction would pin the main pool's connection for the whole request.
+@SpringBootTest(properties = {
+        "app.bulkheads.groups.catalog.max-concurrent=1",
+        "app.bulkheads.groups.catalog.queue-depth=0",
+        "app.bulkheads.groups.catalog.retry-after-seconds=4",
+        "app.bulkheads.groups.auth.max-concurrent=1",
+        "app.bulkheads.groups.auth.queue-depth=0",
+        "app.bulkheads.groups.auth.overflow=too-many-requests",
+        "app.bulkheads.groups.checkout.pool-size=2"
+})
+@ActiveProfiles("test")
+class BulkheadIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void catalogSaturated_BrowsingRejected_SignInUnaffected() throws Exception {
+        RequestBulkhead catalog = bulkheadRegistry.get("catalog");
+        assertThat(catalog.tryEnter()).isTrue();
+        try {
+            mockMvc.perform(get("/products"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "4"));
+
+            signIn().andExpect(status().isOk());
+        } finally {
+            catalog.exit();
+        }
+
+        mockMvc.perform(get("/products")).andExpect(status().isOk());
+        assertThat(meterRegistry.get("http.server.bulkhead.rejected").tags("bulkhead", "catalog", "reason", "queue_full")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void authSaturated_SignInThrottled() throws Exception {
+        RequestBulkhead auth = bulkheadRegistry.get("auth");
+        assertThat(auth.tryEnter()).isTrue();
+        try {
+            signIn().andExpect(status().isTooManyRequests());
+        } finally {
+            auth.exit();
+        }
+    }
+
+    @Test
+    void checkoutWithDedicatedPool_ConnectionsTakenFromItsPool() throws Exception {
+        String token = objectMapper.readTree(signIn().andReturn().getResponse().getContentAsString())
+                .get("accessToken").asText();
+
+        // Cancelling an unknown order still opens a transaction, without changing any data
+        mockMvc.perform(put("/orders/my/{orderId}/cancel", Long.MAX_VALUE).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", "bulkhead-checkout").timer();
+        assertThat(acquire).isNotNull();
+        assertThat(acquire.count()).isPositive();
+    }
+
+    private ResultActions signIn() throws Exception {
+        return mockMvc.perform(post("/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("user", "user123"))));
+    }
+}
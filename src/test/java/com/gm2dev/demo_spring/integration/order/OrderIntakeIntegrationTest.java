@@ -0,0 +1,143 @@
+package com.gm2dev.demo_spring.integration.order;
+
+import com.gm2dev.demo_spring.config.OrderIntakeProperties;
+import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
+import com.gm2dev.demo_spring.dto.order.OrderIntakeResponse;
+import com.gm2dev.demo_spring.dto.order.OrderIntakeResponse.IntakeStatus;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.exception.ServiceOverloadedException;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import com.gm2dev.demo_spring.repository.user.UserRepository;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import com.gm2dev.demo_spring.service.order.OrderIntakeService;
+import com.gm2dev.demo_spring.service.order.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Not @Transactional: intake workers commit on their own threads and must see the test product
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderIntakeIntegrationTest {
+
+    private static final int SUBMISSIONS = 30;
+    private static final int INITIAL_STOCK = 20;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> createdOrderIds = new ArrayList<>();
+    private Product product;
+    private UserPrincipal buyer;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("user").orElseThrow();
+        buyer = new UserPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), Collections.emptyList());
+
+        product = productRepository.save(Product.builder()
+                .name("Queued Product")
+                .description("Async intake item")
+                .price(new BigDecimal("5.00"))
+                .stockQuantity(INITIAL_STOCK)
+                .category("Electronics")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAllById(createdOrderIds);
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    void submit_MoreOrdersThanStock_CommitsInBatchesAndFailsOnlyTheExcess() throws Exception {
+        List<UUID> references = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            OrderIntakeResponse accepted = orderIntakeService.submit(buyer, orderRequest());
+            assertThat(accepted.getStatus()).isEqualTo(IntakeStatus.QUEUED);
+            references.add(accepted.getReference());
+        }
+
+        List<OrderIntakeResponse> results = awaitResults(references);
+        results.stream().map(OrderIntakeResponse::getOrderId).filter(Objects::nonNull).forEach(createdOrderIds::add);
+
+        long completed = results.stream().filter(result -> result.getStatus() == IntakeStatus.COMPLETED).count();
+        long failed = results.stream().filter(result -> result.getStatus() == IntakeStatus.FAILED).count();
+
+        assertThat(completed).isEqualTo(INITIAL_STOCK);
+        assertThat(failed).isEqualTo(SUBMISSIONS - INITIAL_STOCK);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    @Test
+    void stopWorkers_OrdersStillQueued_DrainedBeforeShutdownAndNewSubmissionsRejected() {
+        // A private instance, so stopping it leaves the shared one running for other tests
+        OrderIntakeProperties properties = new OrderIntakeProperties();
+        properties.setWorkers(1);
+        properties.setMaxBatchSize(3);
+        OrderIntakeService intake = new OrderIntakeService(orderService, properties, new SimpleMeterRegistry());
+        intake.startWorkers();
+
+        List<UUID> references = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            references.add(intake.submit(buyer, orderRequest()).getReference());
+        }
+        intake.stopWorkers();
+
+        List<OrderIntakeResponse> results = references.stream().map(reference -> intake.getStatus(reference, buyer)).toList();
+        results.stream().map(OrderIntakeResponse::getOrderId).filter(Objects::nonNull).forEach(createdOrderIds::add);
+
+        assertThat(results).extracting(OrderIntakeResponse::getStatus).containsOnly(IntakeStatus.COMPLETED);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(INITIAL_STOCK - 12);
+        assertThatThrownBy(() -> intake.submit(buyer, orderRequest())).isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    private CreateOrderRequest orderRequest() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), 1)));
+        return request;
+    }
+
+    private List<OrderIntakeResponse> awaitResults(List<UUID> references) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            List<OrderIntakeResponse> results = references.stream()
+                    .map(reference -> orderIntakeService.getStatus(reference, buyer))
+                    .toList();
+            boolean pending = results.stream().anyMatch(result -> result.getStatus() == IntakeStatus.QUEUED);
+            if (!pending || System.currentTimeMillis() > deadline) {
+                return results;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.gm2dev.demo_spring.integration.order;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.dto.order.BulkOrderStatusRequest;
 import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
 import com.gm2dev.demo_spring.dto.user.LoginRequest;
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
 import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
 import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import com.gm2dev.demo_spring.service.order.OrderArchiveService;
+import com.gm2dev.demo_spring.service.order.OrderExpiryService;
+import com.gm2dev.demo_spring.service.user.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +24,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -19,8 +35,17 @@ import org.springframework.transaction.annotation.Transactional;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 
 import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -40,6 +65,27 @@ class OrderIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderExpiryService orderExpiryService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private String adminToken;
     private String userToken;
     private Product testProduct;
@@ -103,6 +149,80 @@ class OrderIntegrationTest {
                 .andExpect(jsonPath("$.orderItems[0].quantity").value(2));
     }
 
+    @Test
+    void createOrder_DuplicateProductLines_MergedIntoSingleItem() throws Exception {
+        CreateOrderRequest.OrderItemRequest firstLine = new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 1);
+        CreateOrderRequest.OrderItemRequest secondLine = new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 2);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(List.of(firstLine, secondLine));
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.orderItems.length()").value(1))
+                .andExpect(jsonPath("$.orderItems[0].quantity").value(3))
+                .andExpect(jsonPath("$.user.username").value("user"));
+    }
+
+    @Test
+    void createOrder_SameIdempotencyKey_ReplaysWithoutSecondOrder() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 2)));
+
+        MvcResult first = mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn();
+        long orderId = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(orderId));
+
+        mockMvc.perform(get("/orders/my")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void createOrder_IdempotencyKeyReusedWithDifferentBody_Conflict() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 1)));
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 3)));
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void createOrder_InsufficientStock_BadRequest() throws Exception {
         CreateOrderRequest.OrderItemRequest orderItem = new CreateOrderRequest.OrderItemRequest();
@@ -187,6 +307,89 @@ class OrderIntegrationTest {
                 .andExpect(jsonPath("$.content[0].status").value("PENDING"));
     }
 
+    @Test
+    void getMyOrders_PagedById_ReturnsRequestedSliceInOrder() throws Exception {
+        for (int quantity = 1; quantity <= 3; quantity++) {
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setShippingAddress("123 Test Street, Test City, 12345");
+            request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), quantity)));
+
+            mockMvc.perform(post("/orders")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/orders/my")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("size", "2")
+                        .param("sort", "id,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].orderItems[0].quantity").value(3))
+                .andExpect(jsonPath("$.content[1].orderItems[0].quantity").value(2))
+                .andExpect(jsonPath("$.content[0].orderItems[0].product.name").value("Test Product"));
+    }
+
+    @Test
+    void getMyOrders_SummaryView_ReturnsHeadersWithItemCount() throws Exception {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 2)));
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/orders/my")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].status").value("PENDING"))
+                .andExpect(jsonPath("$.content[0].itemCount").value(1))
+                .andExpect(jsonPath("$.content[0].userId").exists())
+                .andExpect(jsonPath("$.content[0].orderItems").doesNotExist())
+                .andExpect(jsonPath("$.content[0].user").doesNotExist());
+    }
+
+    @Test
+    void getMyOrders_ExpandedView_DeduplicatesProductsAndUsers() throws Exception {
+        for (int quantity = 1; quantity <= 2; quantity++) {
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setShippingAddress("123 Test Street, Test City, 12345");
+            request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), quantity)));
+
+            mockMvc.perform(post("/orders")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/orders/my")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("view", "expanded"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].orderItems[0].productId").value(testProduct.getId()))
+                .andExpect(jsonPath("$.products.length()").value(1))
+                .andExpect(jsonPath("$.products['" + testProduct.getId() + "'].name").value("Test Product"))
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void getMyOrders_UnknownView_BadRequest() throws Exception {
+        mockMvc.perform(get("/orders/my")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("view", "tiny"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAllOrders_WithAdminAuth_Success() throws Exception {
         // First create an order
@@ -302,4 +505,298 @@ class OrderIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(orderId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateOrderStatus_AdminCancelsConfirmedOrder_StockRestored() throws Exception {
+        Long orderId = placeOrder(3);
+        mockMvc.perform(put("/orders/{orderId}/status", orderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("status", "CONFIRMED"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/orders/{orderId}/status", orderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("status", "CANCELLED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+
+        // Stock is restored with plain SQL, so read it back the same way
+        assertThat(jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class,
+                testProduct.getId())).isEqualTo(10);
+    }
+
+    @Test
+    void updateOrderStatus_InvalidTransition_BadRequest() throws Exception {
+        Long orderId = placeOrder(1);
+
+        mockMvc.perform(put("/orders/{orderId}/status", orderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("status", "DELIVERED"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_ByIds_ReportsPerOrderOutcomes() throws Exception {
+        Long pendingOrderId = placeOrder(1);
+        Long confirmedOrderId = placeOrder(1);
+        mockMvc.perform(put("/orders/{orderId}/status", confirmedOrderId)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("status", "CONFIRMED"))
+                .andExpect(status().isOk());
+
+        BulkOrderStatusRequest confirm = new BulkOrderStatusRequest(OrderStatus.CONFIRMED,
+                List.of(pendingOrderId, confirmedOrderId, 999999L), null);
+        mockMvc.perform(post("/orders/status/bulk")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(confirm)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.rejected.length()").value(1))
+                .andExpect(jsonPath("$.rejected[0].orderId").value(999999));
+
+        BulkOrderStatusRequest deliver = new BulkOrderStatusRequest(OrderStatus.DELIVERED, List.of(pendingOrderId), null);
+        mockMvc.perform(post("/orders/status/bulk")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(deliver)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.rejected[0].orderId").value(pendingOrderId))
+                .andExpect(jsonPath("$.rejected[0].currentStatus").value("CONFIRMED"));
+
+        mockMvc.perform(get("/orders/{orderId}", pendingOrderId)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_ByFilter_UpdatesMatchingOrders() throws Exception {
+        Long orderId = placeOrder(2);
+
+        BulkOrderStatusRequest.Filter filter = new BulkOrderStatusRequest.Filter(OrderStatus.PENDING,
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+        mockMvc.perform(post("/orders/status/bulk")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkOrderStatusRequest(OrderStatus.CONFIRMED, null, filter))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.rejected.length()").value(0));
+
+        mockMvc.perform(get("/orders/{orderId}", orderId)
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_CancelTarget_BadRequest() throws Exception {
+        BulkOrderStatusRequest cancel = new BulkOrderStatusRequest(OrderStatus.CANCELLED, List.of(1L), null);
+
+        mockMvc.perform(post("/orders/status/bulk")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cancel)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSalesStats_ByProduct_TracksOrdersAndCancellations() throws Exception {
+        Long orderId = placeOrder(2);
+        String productBucket = "$.buckets[?(@.key == '" + testProduct.getId() + "')]";
+
+        mockMvc.perform(get("/orders/stats")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("groupBy", "product")
+                        .param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(productBucket + ".units").value(hasItem(2)))
+                .andExpect(jsonPath(productBucket + ".revenue").value(hasItem(199.98)));
+
+        mockMvc.perform(put("/orders/my/{orderId}/cancel", orderId)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/orders/stats")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("groupBy", "product")
+                        .param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(productBucket + ".units").value(hasItem(0)));
+
+        // A rebuild recomputes the day from orders; the cancelled order contributes nothing
+        mockMvc.perform(post("/orders/stats/rebuild")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/orders/stats")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("groupBy", "product")
+                        .param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(productBucket).isEmpty());
+    }
+
+    @Test
+    void rebuildSalesStats_ShardedRows_FoldedIntoOneRowPerProduct() throws Exception {
+        // Each order picks its own shard, so the day may hold several rows for the product
+        placeOrder(1);
+        placeOrder(2);
+        placeOrder(3);
+
+        mockMvc.perform(post("/orders/stats/rebuild")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().toString()))
+                .andExpect(status().isOk());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT shard, units FROM sales_daily_product WHERE sales_date = ? AND product_id = ?",
+                Date.valueOf(LocalDate.now()), testProduct.getId());
+        assertThat(((Number) row.get("shard")).intValue()).isZero();
+        assertThat(((Number) row.get("units")).longValue()).isEqualTo(6);
+    }
+
+    @Test
+    void getSalesStats_UnknownGrouping_BadRequest() throws Exception {
+        mockMvc.perform(get("/orders/stats")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("groupBy", "week"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSalesStats_WithUserAuth_Forbidden() throws Exception {
+        mockMvc.perform(get("/orders/stats")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getMyOrders_ArchivedOrder_ListedOnlyWhenIncluded() throws Exception {
+        Long orderId = placeOrder(1);
+        mockMvc.perform(put("/orders/my/{orderId}/cancel", orderId)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+
+        orderArchiveService.archiveClosedOrders(LocalDateTime.now().plusMinutes(1));
+
+        mockMvc.perform(get("/orders/my")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("status", "CANCELLED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+
+        mockMvc.perform(get("/orders/my")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("status", "CANCELLED")
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(orderId));
+
+        // Lookups by id always reach the archive
+        mockMvc.perform(get("/orders/my/{orderId}", orderId)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void expirePendingOrders_StaleOrder_CancelledAndRestocked() throws Exception {
+        Long orderId = placeOrder(2);
+
+        int expired = orderExpiryService.expirePendingOrders(LocalDateTime.now().plusMinutes(1));
+
+        // The sweeper updates rows with SQL, so read them back the same way
+        assertThat(expired).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, orderId))
+                .isEqualTo(OrderStatus.CANCELLED.name());
+        assertThat(jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class,
+                testProduct.getId())).isEqualTo(10);
+        assertThat(orderExpiryService.expirePendingOrders(LocalDateTime.now().plusMinutes(1))).isZero();
+    }
+
+    @Test
+    void createOrder_ManyLines_InsertsAreBatched() throws Exception {
+        int lines = 20;
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            products.add(Product.builder()
+                    .name("Batch Product " + i)
+                    .description("Test Description")
+                    .price(new BigDecimal("5.00"))
+                    .stockQuantity(10)
+                    .category("Electronics")
+                    .build());
+        }
+        productRepository.saveAllAndFlush(products);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(products.stream()
+                .map(product -> new CreateOrderRequest.OrderItemRequest(product.getId(), 1))
+                .toList());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(post("/orders")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.totalAmount").value(100.00));
+            entityManager.flush();
+
+            // One order row and one row per line, but sequence ids and JDBC batching keep the statements
+            // well below one per row (with IDENTITY each row was its own INSERT)
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(lines + 1);
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(lines);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    @Test
+    void deleteUser_WithOrders_LeavesNoOrphanedItems() throws Exception {
+        Long orderId = placeOrder(2);
+        Long userId = jdbcTemplate.queryForObject("SELECT user_id FROM orders WHERE id = ?", Long.class, orderId);
+
+        UserPrincipal admin = new UserPrincipal(0L, "admin", "admin@example.com", "",
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+        try {
+            userService.deleteUser(userId);
+            entityManager.flush();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?", Long.class, userId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items WHERE order_id = ?", Long.class, orderId)).isZero();
+        assertThat(orderRepository.countOrphanOrderItems()).isZero();
+    }
+
+    private Long placeOrder(int quantity) throws Exception {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), quantity)));
+
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
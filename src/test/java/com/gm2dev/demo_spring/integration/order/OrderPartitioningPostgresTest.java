@@ -0,0 +1,172 @@
+package com.gm2dev.demo_spring.integration.order;
+
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import com.gm2dev.demo_spring.service.order.OrderArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Runs the Flyway migrations (V12 partitioning, V17 per-partition id indexes, V19 item cascade) on a real PostgreSQL,
+// which H2 cannot stand in for. Skipped where Docker is not available.
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class OrderPartitioningPostgresTest {
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", postgres::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("app.orders.archive.enabled", () -> "false");
+    }
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void createUpcomingPartitions_CreatesMonthlyPartitionWithUniqueIdIndex() {
+        orderArchiveService.createUpcomingPartitions();
+
+        String partition = "orders_active_p" + LocalDate.now().plusMonths(3).format(MONTH_SUFFIX);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE c.relname = ?",
+                Long.class, partition)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE tablename = ? AND indexname = ?",
+                Long.class, partition, partition + "_id_key")).isEqualTo(1);
+    }
+
+    // The first month's rows already sit in the default partition, so creating it fails; that must not
+    // abort the transaction for the months after it
+    @Test
+    void createUpcomingPartitions_OneRangeFails_LaterPartitionsStillCreated() {
+        LocalDate blockedMonth = LocalDate.now().plusYears(3).withDayOfMonth(1);
+        long orderId = insertOrder(nextOrderId(), "PENDING", false, blockedMonth.atStartOfDay().plusDays(1));
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRepository.createPartitions(blockedMonth, 1));
+
+            assertThat(partitionExists("orders_active_p" + blockedMonth.format(MONTH_SUFFIX))).isFalse();
+            assertThat(partitionExists("orders_active_p" + blockedMonth.plusMonths(1).format(MONTH_SUFFIX))).isTrue();
+            assertThat(partitionExists("orders_archive_p" + blockedMonth.getYear())).isTrue();
+        } finally {
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+        }
+    }
+
+    @Test
+    void archiveClosedOrders_MovesOrderToArchivePartitionAndKeepsItsItems() {
+        LocalDateTime closedAt = LocalDateTime.now().minusDays(120);
+        orderRepository.createPartitions(closedAt.toLocalDate(), 4);
+        long orderId = insertOrder(nextOrderId(), "DELIVERED", false, closedAt);
+        insertItem(orderId);
+
+        int archived = orderArchiveService.archiveClosedOrders(LocalDateTime.now().minusDays(90));
+
+        assertThat(archived).isGreaterThanOrEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM orders WHERE id = ?", String.class, orderId))
+                .isEqualTo("orders_archive_p" + closedAt.getYear());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_items oi JOIN orders o ON o.id = oi.order_id WHERE o.id = ?", Long.class, orderId))
+                .isEqualTo(1);
+        assertThat(orderRepository.countDuplicateOrderIds()).isZero();
+        assertThat(orderRepository.countOrphanOrderItems()).isZero();
+    }
+
+    @Test
+    void deleteOrder_ItemsDeletedWithIt() {
+        long orderId = insertOrder(nextOrderId(), "CANCELLED", false, LocalDateTime.now());
+        insertItem(orderId);
+
+        jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items WHERE order_id = ?", Long.class, orderId))
+                .isZero();
+    }
+
+    @Test
+    void orderIds_DuplicateInSamePartitionRejected_AcrossPartitionsAndOrphansReported() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        long orderId = insertOrder(nextOrderId(), "CANCELLED", false, createdAt);
+        long orphanOrderId = nextOrderId();
+        try {
+            assertThatThrownBy(() -> insertOrder(orderId, "PENDING", false, createdAt))
+                    .isInstanceOf(DuplicateKeyException.class);
+
+            insertOrder(orderId, "CANCELLED", true, createdAt);
+            insertItem(orphanOrderId);
+
+            assertThat(orderRepository.countDuplicateOrderIds()).isEqualTo(1);
+            assertThat(orderRepository.countOrphanOrderItems()).isEqualTo(1);
+        } finally {
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (?, ?)", orderId, orphanOrderId);
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+        }
+    }
+
+    private boolean partitionExists(String partition) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE c.relname = ?",
+                Long.class, partition) == 1;
+    }
+
+    private long nextOrderId() {
+        return jdbcTemplate.queryForObject("SELECT nextval('orders_id_seq')", Long.class);
+    }
+
+    private long insertOrder(long id, String status, boolean archived, LocalDateTime at) {
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, shipping_address, status, total_amount, archived, created_at, updated_at) " +
+                        "VALUES (?, (SELECT id FROM users WHERE username = 'user'), '1 Partition Street', ?, 10.00, ?, ?, ?)",
+                id, status, archived, Timestamp.valueOf(at), Timestamp.valueOf(at));
+        return id;
+    }
+
+    private void insertItem(long orderId) {
+        jdbcTemplate.update("INSERT INTO order_items (order_id, product_id, quantity, unit_price, subtotal) " +
+                "VALUES (?, (SELECT MIN(id) FROM products), 1, 10.00, 10.00)", orderId);
+    }
+}
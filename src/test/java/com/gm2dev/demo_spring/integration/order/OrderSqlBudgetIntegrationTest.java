@@ -0,0 +1,99 @@
+package com.gm2dev.demo_spring.integration.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
+import com.gm2dev.demo_spring.dto.user.LoginRequest;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The test profile runs SQL accounting in fail mode; here POST /orders gets a budget it cannot meet
+@SpringBootTest(properties = "app.sql.accounting.budgets[POST\\ /orders]=1")
+@ActiveProfiles("test")
+@Transactional
+class OrderSqlBudgetIntegrationTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String userToken;
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        MvcResult userResult = mockMvc.perform(post("/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("user", "user123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        userToken = objectMapper.readTree(userResult.getResponse().getContentAsString()).get("accessToken").asText();
+
+        testProduct = productRepository.save(Product.builder()
+                .name("Budget Product")
+                .description("Test Description")
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(10)
+                .category("Electronics")
+                .build());
+    }
+
+    @Test
+    void createOrder_OverStatementBudget_Fails() throws Exception {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShippingAddress("123 Test Street, Test City, 12345");
+        request.setOrderItems(List.of(new CreateOrderRequest.OrderItemRequest(testProduct.getId(), 1)));
+
+        mockMvc.perform(post("/orders")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void getProductById_WithinBudget_RecordedPerEndpoint() throws Exception {
+        mockMvc.perform(get("/products/{productId}", testProduct.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("http.server.requests.sql.statements")
+                .tags("method", "GET", "uri", "/products/{productId}")
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.count()).isPositive();
+    }
+}
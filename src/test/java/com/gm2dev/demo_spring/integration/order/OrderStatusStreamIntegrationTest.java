@@ -0,0 +1,183 @@
+package com.gm2dev.demo_spring.integration.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gm2dev.demo_spring.dto.user.LoginRequest;
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.event.OrderStatusChangedEvent;
+import com.gm2dev.demo_spring.repository.user.UserRepository;
+import com.gm2dev.demo_spring.service.order.OrderStatusStreamService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStatusStreamIntegrationTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderStatusStreamService orderStatusStreamService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void streamMyOrders_WithLastEventId_ReplaysMissedStatusChanges() throws Exception {
+        Long userId = userRepository.findByUsername("user").orElseThrow().getId();
+        orderStatusStreamService.onOrderStatusChanged(
+                new OrderStatusChangedEvent(987654L, userId, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+
+        MvcResult result = mockMvc.perform(get("/orders/my/stream")
+                        .header("Authorization", "Bearer " + token("user", "user123"))
+                        .header("Last-Event-ID", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).contains("event:order-status");
+        assertThat(body).contains("\"orderId\":987654");
+        assertThat(body).contains("\"status\":\"CONFIRMED\"");
+    }
+
+    // Each change is published from its own thread; the stream must still carry them in id order
+    @Test
+    void streamMyOrders_RapidTransitions_DeliveredInIdOrder() throws Exception {
+        Long userId = userRepository.findByUsername("user").orElseThrow().getId();
+        MvcResult result = mockMvc.perform(get("/orders/my/stream")
+                        .header("Authorization", "Bearer " + token("user", "user123")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        int transitions = 50;
+        try (ExecutorService publishers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < transitions; i++) {
+                OrderStatus status = i % 2 == 0 ? OrderStatus.CONFIRMED : OrderStatus.SHIPPED;
+                publishers.execute(() -> orderStatusStreamService.onOrderStatusChanged(
+                        new OrderStatusChangedEvent(876543L, userId, OrderStatus.PENDING, status)));
+            }
+        }
+
+        String body = awaitEvents(result, "\"orderId\":876543", transitions);
+        List<Long> ids = body.lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> Long.parseLong(line.substring(3)))
+                .toList();
+        assertThat(ids).hasSizeGreaterThanOrEqualTo(transitions);
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void streamMyOrders_OverConnectionCap_TooManyRequests() throws Exception {
+        String adminToken = token("admin", "admin123");
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/orders/my/stream")
+                            .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(request().asyncStarted());
+        }
+
+        mockMvc.perform(get("/orders/my/stream")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    // The async dispatch carries no fresh authentication; it must still be allowed to finish the response
+    @Test
+    void streamMyOrders_TimedOut_CompletesAndFreesConnection() throws Exception {
+        double connectionsBefore = openConnections();
+        MvcResult result = mockMvc.perform(get("/orders/my/stream")
+                        .header("Authorization", "Bearer " + token("user", "user123")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(openConnections()).isEqualTo(connectionsBefore + 1);
+
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+        assertThat(openConnections()).isEqualTo(connectionsBefore);
+    }
+
+    // shutdown() stops the fan-out executor, so the context cannot be reused afterwards
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void streamMyOrders_CompletedByServer_AsyncDispatchSucceeds() throws Exception {
+        MvcResult result = mockMvc.perform(get("/orders/my/stream")
+                        .header("Authorization", "Bearer " + token("user", "user123")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        orderStatusStreamService.shutdown();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+    }
+
+    private String awaitEvents(MvcResult result, String marker, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = result.getResponse().getContentAsString();
+            if (StringUtils.countOccurrencesOf(body, marker) >= expected
+                    || System.currentTimeMillis() > deadline) {
+                return body;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private double openConnections() {
+        return meterRegistry.get("orders.stream.connections").gauge().value();
+    }
+
+    private String token(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+}
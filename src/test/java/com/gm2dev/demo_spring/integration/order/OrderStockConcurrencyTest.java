@@ -0,0 +1,192 @@
+package com.gm2dev.demo_spring.integration.order;
+
+import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
+import com.gm2dev.demo_spring.entity.order.Order;
+import com.gm2dev.demo_spring.entity.order.OrderStatus;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
+import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import com.gm2dev.demo_spring.repository.user.UserRepository;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import com.gm2dev.demo_spring.service.order.OrderExpiryService;
+import com.gm2dev.demo_spring.service.order.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Not @Transactional: every checkout must commit on its own so the threads really contend on the row
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStockConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStockConcurrencyTest.class);
+
+    private static final int THREADS = 8;
+    private static final int CHECKOUT_ATTEMPTS = 200;
+    private static final int INITIAL_STOCK = 120;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExpiryService orderExpiryService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> createdOrderIds = Collections.synchronizedList(new ArrayList<>());
+    private Product hotProduct;
+    private UserPrincipal buyer;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("user").orElseThrow();
+        buyer = new UserPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), Collections.emptyList());
+
+        hotProduct = productRepository.save(Product.builder()
+                .name("Hot Product")
+                .description("Flash sale item")
+                .price(new BigDecimal("19.99"))
+                .stockQuantity(INITIAL_STOCK)
+                .category("Electronics")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAllById(createdOrderIds);
+        productRepository.deleteById(hotProduct.getId());
+    }
+
+    @Test
+    void createOrder_ConcurrentCheckoutsOnHotProduct_NeverOversells() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        List<Future<?>> checkouts = new ArrayList<>();
+        for (int i = 0; i < CHECKOUT_ATTEMPTS; i++) {
+            checkouts.add(executor.submit(() -> {
+                start.await();
+                try {
+                    Order order = orderService.createOrder(buyer, "1 Flash Sale Street",
+                            List.of(new CreateOrderRequest.OrderItemRequest(hotProduct.getId(), 1)));
+                    createdOrderIds.add(order.getId());
+                } catch (IllegalArgumentException ex) {
+                    rejected.incrementAndGet();
+                } catch (RuntimeException ex) {
+                    failed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> checkout : checkouts) {
+            checkout.get(60, TimeUnit.SECONDS);
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        executor.shutdown();
+
+        int sold = createdOrderIds.size();
+        int remaining = productRepository.findById(hotProduct.getId()).orElseThrow().getStockQuantity();
+
+        log.info("Hot product stress: {} threads, {} attempts, {} sold, {} rejected, {} failed, {} orders/sec",
+                THREADS, CHECKOUT_ATTEMPTS, sold, rejected.get(), failed.get(), String.format("%.1f", sold / elapsedSeconds));
+
+        assertThat(remaining).isGreaterThanOrEqualTo(0);
+        assertThat(sold).isLessThanOrEqualTo(INITIAL_STOCK);
+        assertThat(remaining).isEqualTo(INITIAL_STOCK - sold);
+        assertThat(sold + rejected.get() + failed.get()).isEqualTo(CHECKOUT_ATTEMPTS);
+        assertThat(rejected.get()).isGreaterThanOrEqualTo(CHECKOUT_ATTEMPTS - INITIAL_STOCK - failed.get());
+    }
+
+    @Test
+    void cancelOrder_WhileSweeperHoldsOrder_WaitsAndRestocksOnce() throws Exception {
+        Order order = placeOrder(3);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TransactionTemplate sweeperTransaction = new TransactionTemplate(transactionManager);
+
+        Future<?> cancel = sweeperTransaction.execute(status -> {
+            // Joins this transaction, so the claimed row stays locked until it commits
+            assertThat(orderExpiryService.expirePendingOrders(LocalDateTime.now().plusMinutes(1))).isPositive();
+            Future<?> pending = executor.submit(() -> orderService.cancelOrder(order.getId(), buyer));
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            assertThat(pending).isNotDone();
+            return pending;
+        });
+
+        assertThatThrownBy(() -> cancel.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("CANCELLED");
+        executor.shutdown();
+
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStockQuantity()).isEqualTo(INITIAL_STOCK);
+    }
+
+    @Test
+    void expirePendingOrders_WhileOrderIsBeingCancelled_SkipsIt() throws Exception {
+        Order order = placeOrder(3);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            orderService.cancelOrder(order.getId(), buyer);
+            Future<Integer> sweep = executor.submit(() -> orderExpiryService.expirePendingOrders(LocalDateTime.now().plusMinutes(1)));
+            try {
+                // SKIP LOCKED: the sweep neither waits on nor claims the order being cancelled
+                assertThat(sweep.get(10, TimeUnit.SECONDS)).isZero();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        executor.shutdown();
+
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(productRepository.findById(hotProduct.getId()).orElseThrow().getStockQuantity()).isEqualTo(INITIAL_STOCK);
+    }
+
+    private Order placeOrder(int quantity) {
+        Order order = orderService.createOrder(buyer, "1 Flash Sale Street",
+                List.of(new CreateOrderRequest.OrderItemRequest(hotProduct.getId(), quantity)));
+        createdOrderIds.add(order.getId());
+        return order;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gm2dev.demo_spring.integration.outbox;
+
+import com.gm2dev.demo_spring.dto.order.CreateOrderRequest;
+import com.gm2dev.demo_spring.entity.order.Order;
+import com.gm2dev.demo_spring.entity.outbox.OutboxEvent;
+import com.gm2dev.demo_spring.entity.outbox.OutboxGap;
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.entity.user.User;
+import com.gm2dev.demo_spring.repository.outbox.OutboxGapRepository;
+import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import com.gm2dev.demo_spring.repository.user.UserRepository;
+import com.gm2dev.demo_spring.security.UserPrincipal;
+import com.gm2dev.demo_spring.service.order.OrderService;
+import com.gm2dev.demo_spring.service.outbox.InMemoryOutboxSink;
+import com.gm2dev.demo_spring.service.outbox.OutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {
+        "app.outbox.sink=memory",
+        "app.outbox.relay-enabled=false",
+        "app.outbox.settle-delay=PT0S"
+})
+class OutboxIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxGapRepository outboxGapRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserPrincipal buyer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("user").orElseThrow();
+        buyer = new UserPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), Collections.emptyList());
+
+        product = productRepository.save(Product.builder()
+                .name("Outbox Product")
+                .description("Event source")
+                .price(new BigDecimal("12.50"))
+                .stockQuantity(10)
+                .category("Electronics")
+                .build());
+    }
+
+    @Test
+    void createAndCancelOrder_EventsRelayedInOrder() {
+        Order order = orderService.createOrder(buyer, "123 Test Street, Test City, 12345",
+                List.of(new CreateOrderRequest.OrderItemRequest(product.getId(), 2)));
+        orderService.cancelOrder(order.getId(), buyer);
+
+        outboxRelay.relayBatch();
+
+        List<OutboxEvent> orderEvents = sink.getEvents().stream()
+                .filter(event -> event.getAggregateType().equals("Order") && order.getId().equals(event.getAggregateId()))
+                .toList();
+        assertThat(orderEvents).extracting(OutboxEvent::getEventType)
+                .containsExactly("OrderCreatedEvent", "OrderStatusChangedEvent");
+        assertThat(orderEvents.get(1).getPayload()).contains("\"status\":\"CANCELLED\"");
+
+        List<OutboxEvent> stockEvents = sink.getEvents().stream()
+                .filter(event -> event.getAggregateType().equals("Product") && product.getId().equals(event.getAggregateId()))
+                .toList();
+        assertThat(stockEvents).extracting(OutboxEvent::getPayload)
+                .containsExactly(
+                        "{\"productId\":" + product.getId() + ",\"delta\":-2}",
+                        "{\"productId\":" + product.getId() + ",\"delta\":2}");
+    }
+
+    @Test
+    void relayBatch_EventCommittedAfterOffsetMovedPast_DeliveredLate() {
+        outboxRelay.relayBatch();
+        long base = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM outbox_events", Long.class);
+
+        // base + 1 belongs to a slow transaction: its id is taken but it commits after the settle delay
+        insertEvent(base + 2);
+        outboxRelay.relayBatch();
+        assertThat(deliveredIds()).contains(base + 2).doesNotContain(base + 1);
+        assertThat(outboxGapRepository.findByConsumerOrderByEventIdAsc(sink.name(), Limit.of(10)))
+                .extracting(OutboxGap::getEventId)
+                .containsExactly(base + 1);
+
+        insertEvent(base + 1);
+        outboxRelay.relayBatch();
+
+        List<Long> delivered = deliveredIds();
+        assertThat(delivered).containsSubsequence(base + 2, base + 1);
+        assertThat(outboxGapRepository.findByConsumerOrderByEventIdAsc(sink.name(), Limit.of(10))).isEmpty();
+    }
+
+    private void insertEvent(long id) {
+        jdbcTemplate.update("INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, created_at) " +
+                        "VALUES (?, 'Test', ?, 'TestEvent', '{}', ?)",
+                id, id, Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+    }
+
+    private List<Long> deliveredIds() {
+        return sink.getEvents().stream().map(OutboxEvent::getId).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.gm2dev.demo_spring.integration.perf;
+
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Runs the generator at startup with small volumes in its own H2 database, so the rows it commits
+// never reach the shared test database. Not @Transactional: the data is committed by the generator.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:perfdb",
+        "app.perf-data.products=2000",
+        "app.perf-data.users=300",
+        "app.perf-data.orders=3000",
+        "app.perf-data.categories=20",
+        "app.perf-data.threads=4",
+        "app.perf-data.chunk-size=500",
+        "app.perf-data.batch-size=100"
+})
+@ActiveProfiles({"test", "perf"})
+class PerfDataGeneratorIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void generate_ConfiguredVolumes_Inserted() {
+        assertThat(count("SELECT COUNT(*) FROM products WHERE description LIKE 'Generated product%'")).isEqualTo(2000);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE username LIKE 'perf_user_%'")).isEqualTo(300);
+        assertThat(count("SELECT COUNT(*) FROM orders")).isEqualTo(3000);
+        assertThat(count("SELECT COUNT(*) FROM order_items")).isGreaterThanOrEqualTo(3000);
+        assertThat(count("SELECT COUNT(*) FROM user_roles ur JOIN users u ON u.id = ur.user_id WHERE u.username LIKE 'perf_user_%'"))
+                .isEqualTo(300);
+    }
+
+    @Test
+    void generate_OrderTotals_MatchLineSubtotals() {
+        assertThat(count("""
+                SELECT COUNT(*) FROM orders o
+                WHERE o.total_amount <> (SELECT SUM(oi.subtotal) FROM order_items oi WHERE oi.order_id = o.id)
+                """)).isZero();
+        assertThat(count("""
+                SELECT COUNT(*) FROM order_items oi
+                WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.id = oi.product_id)
+                """)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM orders WHERE status = 'PENDING' AND created_at < DATEADD('DAY', -1, CURRENT_TIMESTAMP)"))
+                .isZero();
+    }
+
+    @Test
+    void generate_Categories_Skewed() {
+        List<Long> sizes = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM products GROUP BY category ORDER BY COUNT(*) DESC", Long.class);
+
+        assertThat(sizes.get(0)).isGreaterThan(sizes.get(sizes.size() - 1) * 5);
+    }
+
+    @Test
+    void generate_SequencesMovedPastGeneratedIds() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+
+        Product product = productRepository.save(Product.builder()
+                .name("After Generation")
+                .price(new BigDecimal("1.00"))
+                .stockQuantity(1)
+                .category("Electronics")
+                .build());
+
+        assertThat(product.getId()).isGreaterThan(maxId);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
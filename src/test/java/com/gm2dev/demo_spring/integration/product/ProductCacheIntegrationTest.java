@@ -0,0 +1,108 @@
+package com.gm2dev.demo_spring.integration.product;
+
+import com.gm2dev.demo_spring.entity.product.Product;
+import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import com.gm2dev.demo_spring.service.product.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Not @Transactional: the second-level cache is only populated and consulted across committed transactions
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductCacheIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        product = productRepository.save(Product.builder()
+                .name("Cached Product")
+                .description("Test Description")
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(10)
+                .category("Electronics")
+                .build());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    void getProductById_SecondLoad_ServedFromCache() {
+        productService.getProductById(product.getId());
+        productService.getProductById(product.getId());
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Product.class.getName());
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void decreaseStock_PlainSqlUpdate_EvictsCachedProduct() {
+        productService.getProductById(product.getId());
+
+        productService.decreaseStock(Map.of(product.getId(), 3));
+
+        assertThat(productService.getProductById(product.getId()).getStockQuantity()).isEqualTo(7);
+    }
+
+    // The reader still sees the committed stock of 10; its load must not land in the cache
+    @Test
+    void decreaseStock_ReaderBeforeCommit_CannotRecacheOldRow() {
+        productService.getProductById(product.getId());
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.decreaseStock(Map.of(product.getId(), 3));
+            Integer seenByReader = CompletableFuture
+                    .supplyAsync(() -> productService.getProductById(product.getId()).getStockQuantity())
+                    .join();
+            assertThat(seenByReader).isEqualTo(10);
+        });
+
+        assertThat(statistics.getDomainDataRegionStatistics(Product.class.getName()).getPutCount()).isZero();
+        assertThat(productService.getProductById(product.getId()).getStockQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void getAllCategories_Repeated_ServedFromQueryCache() {
+        productService.getAllCategories();
+        productService.getAllCategories();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+}
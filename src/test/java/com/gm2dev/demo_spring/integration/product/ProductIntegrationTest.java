@@ -2,15 +2,20 @@ package com.gm2dev.demo_spring.integration.product;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gm2dev.demo_spring.dto.product.CreateProductRequest;
+import com.gm2dev.demo_spring.dto.product.ProductBatchRequest;
 import com.gm2dev.demo_spring.dto.product.UpdateProductRequest;
 import com.gm2dev.demo_spring.dto.user.LoginRequest;
 import com.gm2dev.demo_spring.entity.product.Product;
 import com.gm2dev.demo_spring.repository.product.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -21,6 +26,11 @@ import org.springframework.web.context.WebApplicationContext;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +51,12 @@ class ProductIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private String adminToken;
     private String userToken;
 
@@ -133,6 +149,48 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$.price").value(149.99));
     }
 
+    // Order lines convert the price to Money without rounding, so a third decimal must never be stored
+    @Test
+    void createProduct_PriceWithThreeDecimals_BadRequest() throws Exception {
+        CreateProductRequest request = new CreateProductRequest(
+                "New Product",
+                "New Description",
+                new BigDecimal("19.999"),
+                5,
+                "Books",
+                null
+        );
+
+        mockMvc.perform(post("/products")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateProduct_PriceWithThreeDecimals_BadRequestAndPriceKept() throws Exception {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Priced Product")
+                .description("Test Description")
+                .price(new BigDecimal("99.99"))
+                .stockQuantity(10)
+                .category("Electronics")
+                .build());
+
+        UpdateProductRequest request = new UpdateProductRequest(
+                null, null, new BigDecimal("19.999"), null, null, null, savedProduct.getVersion());
+
+        mockMvc.perform(put("/products/{id}", savedProduct.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(productRepository.findById(savedProduct.getId()).orElseThrow().getPrice())
+                .isEqualByComparingTo("99.99");
+    }
+
     @Test
     void createProduct_WithUserAuth_Forbidden() throws Exception {
         CreateProductRequest request = new CreateProductRequest(
@@ -185,7 +243,8 @@ class ProductIntegrationTest {
                 new BigDecimal("199.99"),
                 20,
                 "Electronics",
-                null
+                null,
+                savedProduct.getVersion()
         );
 
         mockMvc.perform(put("/products/{id}", savedProduct.getId())
@@ -197,6 +256,69 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$.price").value(199.99));
     }
 
+    @Test
+    void updateProduct_StaleVersion_ConflictAndStockKept() throws Exception {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Contended Product")
+                .description("Sold while being edited")
+                .price(new BigDecimal("99.99"))
+                .stockQuantity(10)
+                .category("Electronics")
+                .build());
+
+        UpdateProductRequest request = new UpdateProductRequest(
+                null, null, null, 50, null, null, savedProduct.getVersion() - 1);
+
+        mockMvc.perform(put("/products/{id}", savedProduct.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+
+        assertThat(productRepository.findById(savedProduct.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void updateProduct_StockWithoutVersion_BadRequest() throws Exception {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Unversioned Edit Product")
+                .description("Stock edit without a version")
+                .price(new BigDecimal("99.99"))
+                .stockQuantity(10)
+                .category("Electronics")
+                .build());
+
+        UpdateProductRequest request = new UpdateProductRequest(null, null, null, 50, null, null, null);
+
+        mockMvc.perform(put("/products/{id}", savedProduct.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateProduct_NameOnlyWithoutVersion_LeavesStockAlone() throws Exception {
+        Product savedProduct = productRepository.save(Product.builder()
+                .name("Renamed Product")
+                .description("Only the name changes")
+                .price(new BigDecimal("99.99"))
+                .stockQuantity(10)
+                .category("Electronics")
+                .build());
+
+        UpdateProductRequest request = new UpdateProductRequest("Renamed Product v2", null, null, null, null, null, null);
+
+        mockMvc.perform(put("/products/{id}", savedProduct.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed Product v2"))
+                .andExpect(jsonPath("$.stockQuantity").value(10))
+                .andExpect(jsonPath("$.price").value(99.99));
+    }
+
     @Test
     void deleteProduct_WithAdminAuth_Success() throws Exception {
         Product product = Product.builder()
@@ -289,4 +411,108 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0]").isString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProductsBatch_MixedIds_ReturnsRequestOrderAndMissingIds() throws Exception {
+        Product first = productRepository.save(Product.builder()
+                .name("Batch Product A")
+                .description("Test Description")
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(3)
+                .category("Books")
+                .build());
+        Product second = productRepository.save(Product.builder()
+                .name("Batch Product B")
+                .description("Test Description")
+                .price(new BigDecimal("20.00"))
+                .stockQuantity(0)
+                .category("Books")
+                .build());
+
+        mockMvc.perform(get("/products/batch")
+                        .param("ids", second.getId() + "," + first.getId() + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].name").value("Batch Product B"))
+                .andExpect(jsonPath("$.products[1].name").value("Batch Product A"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+    }
+
+    @Test
+    void getAvailabilityBatch_NoAuth_ReturnsStockStatus() throws Exception {
+        Product inStock = productRepository.save(Product.builder()
+                .name("Available Product")
+                .description("Test Description")
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(3)
+                .category("Books")
+                .build());
+        Product soldOut = productRepository.save(Product.builder()
+                .name("Sold Out Product")
+                .description("Test Description")
+                .price(new BigDecimal("20.00"))
+                .stockQuantity(0)
+                .category("Books")
+                .build());
+
+        ProductBatchRequest request = new ProductBatchRequest(List.of(inStock.getId(), soldOut.getId(), 999999L));
+
+        mockMvc.perform(post("/products/batch/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availability['" + inStock.getId() + "']").value("IN_STOCK"))
+                .andExpect(jsonPath("$.availability['" + soldOut.getId() + "']").value("OUT_OF_STOCK"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+    }
+
+    @Test
+    void consumeStock_MoreThanInStock_ReportedAndLeftUnchanged() {
+        Product product = productRepository.save(Product.builder()
+                .name("Write-behind Product")
+                .description("Test Description")
+                .price(new BigDecimal("5.00"))
+                .stockQuantity(3)
+                .category("Books")
+                .build());
+
+        assertThat(productRepository.consumeStock(Map.of(product.getId(), 5))).containsExactly(product.getId());
+        assertThat(stockOf(product.getId())).isEqualTo(3);
+
+        assertThat(productRepository.consumeStock(Map.of(product.getId(), 2))).isEmpty();
+        assertThat(stockOf(product.getId())).isEqualTo(1);
+    }
+
+    // Catalog import: with IDENTITY every product was its own INSERT plus a key read-back. Pooled-lo ids
+    // and JDBC batching leave one sequence call per 50 ids and one batched INSERT per 50 rows.
+    @Test
+    void saveAll_ManyProducts_InsertsAreBatched() {
+        int count = 40;
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .name("Imported Product " + i)
+                    .description("Test Description")
+                    .price(new BigDecimal("5.00"))
+                    .stockQuantity(10)
+                    .category("Electronics")
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            productRepository.saveAllAndFlush(products);
+
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(count);
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(count / 4);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    private Integer stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+}
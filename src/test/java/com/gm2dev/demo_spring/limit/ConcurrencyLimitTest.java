@@ -0,0 +1,71 @@
+package com.gm2dev.demo_spring.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(40);
+
+    @Test
+    void gradient_SteadyLatencyAtLimit_Grows() {
+        GradientLimit limit = new GradientLimit(20, 10, 500, 0.2, 1.5, 600);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void gradient_LatencyRises_Shrinks() {
+        GradientLimit limit = new GradientLimit(100, 10, 500, 0.2, 1.5, 600);
+        // Learn the normal latency while lightly loaded, which leaves the limit alone
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, 1, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(100);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(SLOW, limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(60);
+    }
+
+    @Test
+    void gradient_RepeatedDrops_StopsAtMinimum() {
+        GradientLimit limit = new GradientLimit(100, 10, 500, 0.2, 1.5, 600);
+
+        for (int i = 0; i < 500; i++) {
+            limit.onSample(SLOW, 1, true);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void aimd_Drop_BacksOffMultiplicatively() {
+        AimdLimit limit = new AimdLimit(100, 10, 500, 0.9);
+
+        limit.onSample(SLOW, 100, true);
+
+        assertThat(limit.getLimit()).isEqualTo(90);
+    }
+
+    @Test
+    void aimd_UsedLimit_GrowsByOne_IdleLimit_Unchanged() {
+        AimdLimit limit = new AimdLimit(100, 10, 500, 0.9);
+
+        limit.onSample(FAST, 60, false);
+        assertThat(limit.getLimit()).isEqualTo(101);
+
+        limit.onSample(FAST, 5, false);
+        assertThat(limit.getLimit()).isEqualTo(101);
+    }
+}
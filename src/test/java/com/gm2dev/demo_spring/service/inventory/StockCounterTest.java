@@ -0,0 +1,78 @@
+package com.gm2dev.demo_spring.service.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StockCounterTest {
+
+    @Test
+    void tryAcquire_FragmentedAcrossShards_CollectsFromSeveralShards() {
+        StockCounter counter = new StockCounter(4, 10);
+
+        assertThat(counter.tryAcquire(9)).isTrue();
+        assertThat(counter.available()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_Insufficient_LeavesStockUntouched() {
+        StockCounter counter = new StockCounter(4, 10);
+
+        assertThat(counter.tryAcquire(11)).isFalse();
+        assertThat(counter.available()).isEqualTo(10);
+    }
+
+    @Test
+    void add_NegativeCorrection_ReducesAvailable() {
+        StockCounter counter = new StockCounter(4, 10);
+
+        counter.add(-7);
+        counter.release(2);
+
+        assertThat(counter.available()).isEqualTo(5);
+    }
+
+    @Test
+    void tryAcquire_Concurrent_NeverGrantsMoreThanAvailable() throws Exception {
+        int initial = 500;
+        StockCounter counter = new StockCounter(8, initial);
+        AtomicInteger grantedUnits = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        int quantity = 1 + (i % 3);
+                        if (counter.tryAcquire(quantity)) {
+                            grantedUnits.addAndGet(quantity);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(grantedUnits.get()).isLessThanOrEqualTo(initial);
+        assertThat(counter.available()).isEqualTo(initial - grantedUnits.get());
+        assertThat(counter.available()).isGreaterThanOrEqualTo(0);
+    }
+}
@@ -2,6 +2,7 @@ package com.gm2dev.demo_spring.service.user;
 
 import com.gm2dev.demo_spring.entity.user.User;
 import com.gm2dev.demo_spring.exception.ResourceNotFoundException;
+import com.gm2dev.demo_spring.repository.order.OrderRepository;
 import com.gm2dev.demo_spring.repository.user.UserRepository;
 import com.gm2dev.demo_spring.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +28,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
     @InjectMocks
     private UserService userService;
 
@@ -222,6 +226,7 @@ class UserServiceTest {
 
         // Then
         verify(userRepository).findByIdWithRoles(userId);
+        verify(orderRepository).deleteByUserId(userId);
         verify(userRepository).delete(testUser);
     }
 }
\ No newline at end of file